@@ -0,0 +1,214 @@
+package src.ADT;
+
+import java.util.Arrays;
+
+/**
+ * Admissible heuristic counting the cars that must move at least once before the
+ * primary car can reach the exit.
+ *
+ * The primary car has to move, and so has every car on its path to the exit. Each
+ * of those blockers has to clear the path by sliding towards one end of its lane or
+ * the other, and every car standing on the cells it slides over has to move as well.
+ * Those cars in turn have to clear the cells they stand on, and so on up to MAX_DEPTH
+ * levels. Trying both directions for every car gives the smallest set of cars that
+ * must move, and each of them costs at least one move.
+ *
+ * Evaluation reuses per-thread buffers, so it allocates nothing once a thread has
+ * seen a board of the same size.
+ */
+public class BlockerHeuristic
+{
+    // Constants
+    private static final int MAX_DEPTH = 2;   // Levels of blockers below the primary car that get their own obligations
+    private static final int MAX_CARS = 64;   // Largest car count handled with the bitmask, larger boards use a fallback
+    private static final int NO_SOLUTION = Integer.MAX_VALUE;
+
+    private static final ThreadLocal<BlockerHeuristic> SCRATCH = ThreadLocal.withInitial(BlockerHeuristic::new);
+
+    // Attributes
+    private Board board;       // Board being evaluated
+    private int[] owner;       // Car on each cell in row-major order, Board.UNKNOWN if empty
+    private int[] obCar;       // Car of each obligation
+    private int[] obLo;        // First cell along the car's lane the car must leave
+    private int[] obHi;        // Last cell along the car's lane the car must leave
+    private int[] obDepth;     // Level of each obligation, 1 for the blockers of the primary car
+    private int obCount;       // Number of obligations
+    private long moved;        // Cars known to move, one bit per car index
+    private int best;          // Smallest number of moving cars found so far
+
+    private BlockerHeuristic()
+    {
+        this.owner   = new int[0];
+        this.obCar   = new int[0];
+        this.obLo    = new int[0];
+        this.obHi    = new int[0];
+        this.obDepth = new int[0];
+    }
+
+    /**
+     * Calculate the heuristic value of a board
+     *
+     * @param board The board to evaluate
+     * @return A lower bound on the number of moves to solve the board, State.INVALID if it cannot be solved
+     */
+    public static int calculate(Board board)
+    {
+        int primary = board.getPrimaryIndex();
+        int goal = board.getLayout().getGoalOffset();
+
+        if (primary == Board.UNKNOWN || goal == Board.UNKNOWN) return State.INVALID;
+        if (board.isSolved()) return 0;
+        if (board.getCarCount() > MAX_CARS) return 1 + State.calculateBlockingCarHeuristic(board);
+
+        return SCRATCH.get().evaluate(board, primary, goal);
+    }
+
+    /**
+     * Run the search on this thread's buffers
+     *
+     * @param board The board to evaluate
+     * @param primary Index of the primary car
+     * @param goal Goal offset of the primary car
+     * @return The heuristic value
+     */
+    private int evaluate(Board board, int primary, int goal)
+    {
+        prepare(board);
+
+        // The primary car passes over every cell between where it is and where it must end
+        int offset = board.getCarOffset(primary);
+        int length = board.getCarLength(primary);
+        int from = (goal > offset) ? offset + length : goal;
+        int to = (goal > offset) ? goal + length - 1 : offset - 1;
+
+        moved = 1L << primary;
+        obCount = 0;
+        int count = 1 + addOccupants(primary, from, to, 1);
+
+        best = NO_SOLUTION;
+        search(0, count);
+
+        this.board = null;
+        return (best == NO_SOLUTION) ? State.INVALID : best;
+    }
+
+    /**
+     * Fill the cell owners of the board, growing the buffers if needed
+     *
+     * @param board The board to evaluate
+     */
+    private void prepare(Board board)
+    {
+        this.board = board;
+        int cells = board.getRows() * board.getCols();
+        int cars = board.getCarCount();
+
+        if (owner.length < cells) owner = new int[cells];
+        if (obCar.length < cars)
+        {
+            obCar   = new int[cars];
+            obLo    = new int[cars];
+            obHi    = new int[cars];
+            obDepth = new int[cars];
+        }
+
+        Arrays.fill(owner, 0, cells, Board.UNKNOWN);
+        for (int c = 0; c < cars; c++)
+            for (int k = 0; k < board.getCarLength(c); k++)
+                owner[cell(c, board.getCarOffset(c) + k)] = c;
+    }
+
+    /**
+     * Try both ways of clearing each obligation, keeping the smallest number of moving cars
+     *
+     * @param next Index of the next obligation to clear
+     * @param count Number of cars known to move so far
+     */
+    private void search(int next, int count)
+    {
+        if (count >= best) return;
+        if (next == obCount)
+        {
+            best = count;
+            return;
+        }
+
+        int car = obCar[next];
+        int offset = board.getCarOffset(car);
+        int length = board.getCarLength(car);
+        int laneLength = board.getLayout().getLaneLength(car);
+
+        long savedMoved = moved;
+        int savedCount = obCount;
+
+        // Towards the start of the lane, ending just before the cells to leave
+        int low = obLo[next] - length;
+        if (low >= 0)
+        {
+            int added = addOccupants(car, low, offset - 1, obDepth[next] + 1);
+            search(next + 1, count + added);
+            moved = savedMoved;
+            obCount = savedCount;
+        }
+
+        // Towards the end of the lane, starting just after the cells to leave
+        int high = obHi[next] + 1;
+        if (high + length <= laneLength)
+        {
+            int added = addOccupants(car, offset + length, high + length - 1, obDepth[next] + 1);
+            search(next + 1, count + added);
+            moved = savedMoved;
+            obCount = savedCount;
+        }
+    }
+
+    /**
+     * Mark every car on a stretch of a lane as moving, and record what it has to clear
+     *
+     * @param car The car whose lane the stretch is on
+     * @param from First cell of the stretch along the lane
+     * @param to Last cell of the stretch along the lane
+     * @param depth Level of the obligations created
+     * @return Number of cars newly marked as moving
+     */
+    private int addOccupants(int car, int from, int to, int depth)
+    {
+        int added = 0;
+        BoardLayout layout = board.getLayout();
+
+        for (int along = from; along <= to; along++)
+        {
+            int other = owner[cell(car, along)];
+            if (other == Board.UNKNOWN || (moved & (1L << other)) != 0) continue;
+
+            moved |= 1L << other;
+            added++;
+            if (depth > MAX_DEPTH) continue;
+
+            // A crossing car leaves one cell of its own lane, a car in the same lane leaves the whole stretch
+            boolean crossing = layout.getCarOrientation(other) != layout.getCarOrientation(car);
+            obCar[obCount]   = other;
+            obLo[obCount]    = crossing ? layout.getCarLane(car) : from;
+            obHi[obCount]    = crossing ? layout.getCarLane(car) : to;
+            obDepth[obCount] = depth;
+            obCount++;
+        }
+        return added;
+    }
+
+    /**
+     * Get the row-major index of a cell of a car's lane
+     *
+     * @param car Index of the car
+     * @param along Position along the lane
+     * @return Index of the cell in owner
+     */
+    private int cell(int car, int along)
+    {
+        BoardLayout layout = board.getLayout();
+        int lane = layout.getCarLane(car);
+        return (layout.getCarOrientation(car) == Board.HORIZONTAL)
+            ? lane * layout.getCols() + along
+            : along * layout.getCols() + lane;
+    }
+}
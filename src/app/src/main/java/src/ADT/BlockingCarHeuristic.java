@@ -0,0 +1,27 @@
+package src.ADT;
+
+/**
+ * Number of cars between the primary car and the exit, see State.calculateBlockingCarHeuristic.
+ * The count only changes when the primary car moves or another car enters or leaves
+ * the primary car's lane, every other move keeps the parent's value.
+ */
+public class BlockingCarHeuristic implements Heuristic
+{
+    // Constants
+    public static final BlockingCarHeuristic INSTANCE = new BlockingCarHeuristic(); // The heuristic keeps no state
+
+    private BlockingCarHeuristic() {}
+
+    @Override
+    public int calculate(Board board)
+    {
+        return State.calculateBlockingCarHeuristic(board);
+    }
+
+    @Override
+    public int delta(Board board, int parentH, int move)
+    {
+        if (parentH == State.INVALID || Board.moveCar(move) == board.getPrimaryIndex()) return calculate(board);
+        return Heuristic.changesPrimaryLane(board, move) ? calculate(board) : parentH;
+    }
+}
@@ -1,6 +1,8 @@
 package src.ADT;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,17 +20,19 @@ public class Board {
     private static final String RESET = "\u001B[0m";
 
     // Attributes
-    private int A;                        // Number of rows in the board
-    private int B;                        // Number of columns in the board
-    private int N;                        // Number of cars on the board
-    private int exitRow;                  // Exit row position
-    private int exitCol;                  // Exit column position
-    private char[][] grid;                // The game grid
-    private List<Car> cars;               // All cars on the board
-    private String exitSide;              // Side of the exit
+    private BoardLayout layout;           // Dimensions, exit and car attributes, shared between copies
     private String errorMsg;              // Error message for invalid configurations
-    private String[] palette;             // Color palette for cars
     private Integer currentMovedCarIndex; // Index of the car that is currently being moved (for highlighting)
+
+    // Dynamic state, copied on every move
+    private byte[] offsets;               // Position of each car along its lane (start column or start row)
+    private long[] rowBits;               // Row-major occupancy bitboard, bit (row * B + col)
+    private long[] colBits;               // Column-major occupancy bitboard, bit (col * A + row)
+    private long zobristHash;             // XOR of the Zobrist keys of all cars at their current offsets
+
+    // Views for display code, rebuilt lazily from the dynamic state
+    private char[][] grid;                // The game grid
+    private List<Car> cars;               // All cars on the board
     
     /**
      * Constructor for the Board class
@@ -47,38 +51,144 @@ public class Board {
                  String exitSide, 
                  String errorMsg) 
     {
-        this.A        = rows;
-        this.B        = cols;
-        this.N        = numCars;
-        this.exitRow  = exitRow;
-        this.exitCol  = exitCol;
-        this.exitSide = exitSide;
-        this.grid     = new char[rows][cols];
-        this.cars     = new ArrayList<>();
         this.errorMsg = errorMsg;
-        this.palette  = generatePalette();
         this.currentMovedCarIndex = null;
         
-        // Initialize the grid with empty cells
-        for (int i = 0; i < rows; i++)
-            for (int j = 0; j < cols; j++)
-                grid[i][j] = '.';
+        // Start with an empty board, the grid is rebuilt with empty cells
+        this.layout = new BoardLayout(rows, cols, numCars, exitRow, exitCol, exitSide, generatePalette(), new ArrayList<>());
+        setCars(new ArrayList<>());
+    }
+
+    /**
+     * Constructor for a board at the given car offsets of a layout
+     * 
+     * @param layout The layout shared by all positions of the puzzle
+     * @param positions Offset of each car along its lane
+     */
+    public Board(BoardLayout layout, byte[] positions) 
+    {
+        this.layout   = layout;
+        this.errorMsg = null;
+        this.offsets  = new byte[layout.getCarCount()];
+        this.rowBits  = new long[(layout.getRows() * layout.getCols() + 63) >>> 6];
+        this.colBits  = new long[(layout.getRows() * layout.getCols() + 63) >>> 6];
+        this.currentMovedCarIndex = null;
+
+        setPositions(positions);
+    }
+
+    /**
+     * Copy constructor, shares the layout and clones only the dynamic state
+     * 
+     * @param other The board to copy
+     */
+    private Board(Board other)
+    {
+        this.layout       = other.layout;
+        this.errorMsg     = other.errorMsg;
+        this.offsets      = other.offsets.clone();
+        this.rowBits      = other.rowBits.clone();
+        this.colBits      = other.colBits.clone();
+        this.zobristHash  = other.zobristHash;
+        this.currentMovedCarIndex = other.currentMovedCarIndex;
     }
     
-    public int getRows() { return this.A; }
-    public int getCols() { return this.B; }
-    public int getNumCars() { return this.N; }
-    public char[][] getGrid() { return this.grid; }
-    public char getElement(int i, int j) { return this.grid[i][j]; }
-    public List<Car> getCars() { return this.cars; }
-    public int getExitRow() { return this.exitRow; }
-    public int getExitCol() { return this.exitCol; }
-    public String getExitSide() { return this.exitSide; }
+    public BoardLayout getLayout() { return this.layout; }
+    public int getRows() { return layout.getRows(); }
+    public int getCols() { return layout.getCols(); }
+    public int getNumCars() { return layout.getNumCars(); }
+    public char getElement(int i, int j) { return this.getGrid()[i][j]; }
+    public int getExitRow() { return layout.getExitRow(); }
+    public int getExitCol() { return layout.getExitCol(); }
+    public String getExitSide() { return layout.getExitSide(); }
     public String getErrorMsg() { return this.errorMsg; }
     public boolean hasError() { return this.errorMsg != null; }
-    public String[] getPalette() { return this.palette; }
+    public String[] getPalette() { return layout.getPalette(); }
     public Integer getCurrentMovedCarIndex() { return this.currentMovedCarIndex; }
     public void setCurrentMovedCarIndex(Integer index) { this.currentMovedCarIndex = index; }
+
+    public int getCarCount() { return this.offsets.length; }
+    public char getCarId(int carIndex) { return layout.getCarId(carIndex); }
+    public int getCarOrientation(int carIndex) { return layout.getCarOrientation(carIndex); }
+    public int getCarLength(int carIndex) { return layout.getCarLength(carIndex); }
+    public int getPrimaryIndex() { return layout.getPrimaryIndex(); }
+    public int getCarOffset(int carIndex) { return this.offsets[carIndex]; }
+    public int getCarRow(int carIndex) { return getCarOrientation(carIndex) == HORIZONTAL ? layout.getCarLane(carIndex) : offsets[carIndex]; }
+    public int getCarCol(int carIndex) { return getCarOrientation(carIndex) == HORIZONTAL ? offsets[carIndex] : layout.getCarLane(carIndex); }
+    public int getKeyWords() { return layout.getKeyWords(); }
+    public int getMaxMoves() { return layout.getMaxMoves(); }
+    public long getZobristHash() { return this.zobristHash; }
+
+    /**
+     * Get the game grid, rebuilt from the car positions when the board has changed
+     * 
+     * @return The game grid
+     */
+    public char[][] getGrid() 
+    {
+        if (this.grid == null)
+        {
+            this.grid = new char[getRows()][getCols()];
+            for (int i = 0; i < getRows(); i++)
+                Arrays.fill(grid[i], '.');
+
+            for (int c = 0; c < offsets.length; c++)
+                for (int k = 0; k < getCarLength(c); k++)
+                    if (getCarOrientation(c) == HORIZONTAL) grid[layout.getCarLane(c)][offsets[c] + k] = getCarId(c);
+                    else grid[offsets[c] + k][layout.getCarLane(c)] = getCarId(c);
+        }
+        return this.grid;
+    }
+
+    /**
+     * Get all cars on the board as a read-only snapshot of their current positions
+     * 
+     * @return List of cars, in car index order
+     */
+    public List<Car> getCars() 
+    {
+        if (this.cars == null)
+        {
+            List<Car> snapshot = new ArrayList<>(offsets.length);
+            for (int c = 0; c < offsets.length; c++)
+                snapshot.add(new Car(getCarId(c), getCarRow(c), getCarCol(c), getCarLength(c), c == getPrimaryIndex(), getCarOrientation(c)));
+
+            this.cars = Collections.unmodifiableList(snapshot);
+        }
+        return this.cars;
+    }
+
+    /**
+     * Get the offset of every car along its lane, which is all a search state needs to store
+     * 
+     * @return A new array with one offset per car
+     */
+    public byte[] getPositions() 
+    {
+        return this.offsets.clone();
+    }
+
+    /**
+     * Move every car of this board to the given offsets, in place
+     * 
+     * @param positions Offset of each car along its lane, from getPositions of a board with the same layout
+     */
+    public void setPositions(byte[] positions) 
+    {
+        System.arraycopy(positions, 0, this.offsets, 0, this.offsets.length);
+        Arrays.fill(this.rowBits, 0);
+        Arrays.fill(this.colBits, 0);
+        this.zobristHash = 0;
+
+        for (int c = 0; c < offsets.length; c++)
+        {
+            toggleCar(c);
+            zobristHash ^= layout.getZobristKey(c, offsets[c]);
+        }
+
+        this.cars = null;
+        this.grid = null;
+    }
     
     /**
      * Get all valid moves for a specific car
@@ -88,84 +198,87 @@ public class Board {
      */
     public List<Integer> getValidMoves(int carIndex) 
     {
-        Car car = cars.get(carIndex);
-        List<Integer> validMoves = new ArrayList<>();
+        int[] moves = new int[layout.getLaneLength(carIndex)];
+        int count = addValidMoves(carIndex, moves, 0);
+
+        List<Integer> validMoves = new ArrayList<>(count);
+        for (int k = 0; k < count; k++)
+            validMoves.add(moveAmount(moves[k]));
         
-        if (car.getOrientation() == HORIZONTAL) 
-        {
-            // Check moves to the left
-            int leftMost = car.getStartCol();
-            int leftBound = 0;
-            
-            for (int col = leftMost - 1; col >= 0; col--) 
-            {
-                if (isOccupied(car.getStartRow(), col)) 
-                {
-                    leftBound = col + 1;
-                    break;
-                }
-            }
-            
-            // Add all possible left moves
-            for (int col = leftMost - 1; col >= leftBound; col--) 
-                validMoves.add(col - leftMost); // This will be negative (left)
-            
-            // Check moves to the right
-            int rightMost = car.getStartCol() + car.getLength() - 1;
-            int rightBound = this.getCols() - 1;
-            
-            for (int col = rightMost + 1; col < this.getCols(); col++) 
-            {
-                if (isOccupied(car.getStartRow(), col)) 
-                {
-                    rightBound = col - 1;
-                    break;
-                }
-            }
-            
-            // Add all possible right moves
-            for (int delta = 1; delta <= rightBound - rightMost; delta++) 
-                validMoves.add(delta); // This will be positive (right)
+        return validMoves;
+    }
 
-        } 
+    /**
+     * Generate the valid moves of every car into a caller-owned buffer, without allocating
+     * 
+     * @param moves Buffer receiving packed moves (see packMove), at least getMaxMoves() long
+     * @return Number of moves written, in car index order
+     */
+    public int generateMoves(int[] moves) 
+    {
+        int count = 0;
+        for (int c = 0; c < offsets.length; c++)
+            count = addValidMoves(c, moves, count);
+
+        return count;
+    }
+
+    /**
+     * Append the valid moves of one car to a move buffer
+     * 
+     * @param carIndex Index of the car in the cars list
+     * @param moves Buffer receiving packed moves
+     * @param count Number of moves already in the buffer
+     * @return The new number of moves in the buffer
+     */
+    private int addValidMoves(int carIndex, int[] moves, int count) 
+    {
+        long lane  = getLaneBits(carIndex);
+        int first  = offsets[carIndex];
+        int last   = first + getCarLength(carIndex) - 1;
+        SlideTable slides = layout.getSlideTable(carIndex);
+        int freeBelow;
+        int freeAbove;
+
+        if (slides != null) 
+        {
+            // Free cells on both sides of the car straight from the lane's occupancy pattern
+            freeBelow = slides.freeBelow(lane, first);
+            freeAbove = slides.freeAbove(lane, last);
+        }
         else 
         {
-            // Check moves up
-            int topMost = car.getStartRow();
-            int topBound = 0;
-            
-            for (int row = topMost - 1; row >= 0; row--) 
-            {
-                if (isOccupied(row, car.getStartCol())) 
-                {
-                    topBound = row + 1;
-                    break;
-                }
-            }
-            
-            // Add all possible up moves
-            for (int row = topMost - 1; row >= topBound; row--)
-                validMoves.add(row - topMost); // This will be negative (up)
-            
-            // Check moves down
-            int bottomMost = car.getStartRow() + car.getLength() - 1;
-            int bottomBound = this.getRows() - 1;
-            
-            for (int row = bottomMost + 1; row < this.getRows(); row++) 
-            {
-                if (isOccupied(row, car.getStartCol())) 
-                {
-                    bottomBound = row - 1;
-                    break;
-                }
-            }
-            
-            // Add all possible down moves
-            for (int delta = 1; delta <= bottomBound - bottomMost; delta++) 
-                validMoves.add(delta); // This will be positive (down)
+            // Lanes too long to tabulate: find the nearest occupied cells on both sides
+            long before = lane & ((1L << first) - 1);
+            freeBelow = first - ((before == 0) ? 0 : 64 - Long.numberOfLeadingZeros(before));
+
+            long after = (last == 63) ? 0 : lane >>> (last + 1);
+            freeAbove = (after == 0) ? layout.getLaneLength(carIndex) - 1 - last : Long.numberOfTrailingZeros(after);
         }
+
+        // Add all possible left/up moves (negative)
+        for (int delta = -1; delta >= -freeBelow; delta--)
+            moves[count++] = packMove(carIndex, delta);
+
+        // Add all possible right/down moves (positive)
+        for (int delta = 1; delta <= freeAbove; delta++) 
+            moves[count++] = packMove(carIndex, delta);
         
-        return validMoves;
+        return count;
+    }
+
+    /**
+     * Get the occupancy of the lane a car slides along
+     * 
+     * @param carIndex Index of the car
+     * @return Bitmask where bit i is set if the i-th cell of the lane is occupied
+     */
+    private long getLaneBits(int carIndex) 
+    {
+        int lane = layout.getCarLane(carIndex);
+
+        if (getCarOrientation(carIndex) == HORIZONTAL) return extractBits(rowBits, lane * getCols(), getCols());
+        else return extractBits(colBits, lane * getRows(), getRows());
     }
     
     /**
@@ -175,13 +288,36 @@ public class Board {
      * @param col Column index
      * @return True if occupied, false otherwise
      */
-    private boolean isOccupied(int row, int col) 
+    public boolean isOccupied(int row, int col) 
     {
         // Check if cell is within bounds
         if (row < 0 || row >= this.getRows() || col < 0 || col >= this.getCols())
             return true; // Treat out-of-bounds as occupied
 
-        return grid[row][col] != '.';
+        int bit = row * getCols() + col;
+        return (rowBits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Find the car occupying a cell
+     * 
+     * @param row Row index
+     * @param col Column index
+     * @return Index of the car on that cell, or UNKNOWN if the cell is empty or out of bounds
+     */
+    public int getCarAt(int row, int col) 
+    {
+        if (row < 0 || row >= getRows() || col < 0 || col >= getCols() || !isOccupied(row, col)) return UNKNOWN;
+
+        for (int c = 0; c < offsets.length; c++) 
+        {
+            int along = (getCarOrientation(c) == HORIZONTAL) ? col : row;
+            int across = (getCarOrientation(c) == HORIZONTAL) ? row : col;
+            
+            if (layout.getCarLane(c) == across && along >= offsets[c] && along < offsets[c] + getCarLength(c))
+                return c;
+        }
+        return UNKNOWN;
     }
     
     /**
@@ -194,59 +330,109 @@ public class Board {
     public Board applyMove(int carIndex, int move) 
     {
         Board newBoard = this.copy();
-        Car car = newBoard.cars.get(carIndex);
-        
-        // Clear the current car position
-        int[][] oldCells = car.getOccupiedCells();
-        for (int[] cell : oldCells)
-            newBoard.grid[cell[0]][cell[1]] = '.';
-        
-        // Move the car
-        car.move(move);
-        
-        // Update the grid with the new car position
-        int[][] newCells = car.getOccupiedCells();
-        for (int[] cell : newCells)
-            newBoard.grid[cell[0]][cell[1]] = car.getId();
-        
+        newBoard.doMove(carIndex, move);
         newBoard.setCurrentMovedCarIndex(carIndex);
         
         return newBoard;
     }
 
-        /**
-     * Check if the board is in a solved state (primary car at exit)
+    /**
+     * Move a car on this board in place, without allocating
      * 
-     * @return True if solved, false otherwise
+     * @param carIndex Index of the car in the cars list
+     * @param move Amount to move (positive for right/down, negative for left/up), must be a valid move
      */
-    public boolean isSolved() 
+    public void doMove(int carIndex, int move) 
     {
-        Car primaryCar = getPrimaryCar();
-        if (primaryCar == null) return false;
-        
-        int startRow = primaryCar.getStartRow();
-        int startCol = primaryCar.getStartCol();
-        int endRow = startRow + (primaryCar.getOrientation() == VERTICAL ? primaryCar.getLength() - 1 : 0);
-        int endCol = startCol + (primaryCar.getOrientation() == HORIZONTAL ? primaryCar.getLength() - 1 : 0);
-        
-        if (primaryCar.getOrientation() == HORIZONTAL) 
+        int from = offsets[carIndex];
+
+        // Clear the current car position, move the car, then mark its new position
+        toggleCar(carIndex);
+        offsets[carIndex] = (byte) (from + move);
+        toggleCar(carIndex);
+
+        // Swap the car's key for the one at its new offset
+        zobristHash ^= layout.getZobristKey(carIndex, from) ^ layout.getZobristKey(carIndex, from + move);
+
+        this.cars = null;
+        this.grid = null;
+    }
+
+    /**
+     * Revert a move previously made with doMove
+     * 
+     * @param carIndex Index of the car in the cars list
+     * @param move Amount the car was moved by
+     */
+    public void undoMove(int carIndex, int move) 
+    {
+        doMove(carIndex, -move);
+    }
+
+    /**
+     * Flip the occupancy bits of every cell covered by a car
+     * 
+     * @param carIndex Index of the car
+     */
+    private void toggleCar(int carIndex) 
+    {
+        int first = offsets[carIndex];
+        int length = getCarLength(carIndex);
+        int lane = layout.getCarLane(carIndex);
+        int rows = getRows();
+        int cols = getCols();
+
+        // The car is contiguous in its own lane's bitboard and strided in the other one
+        if (getCarOrientation(carIndex) == HORIZONTAL) 
         {
-            if (exitCol == this.getCols() - 1)
-                return (endCol == this.getCols() - 1) && (startRow == exitRow);
-            
-            else if (exitCol == 0)
-                return (startCol == 0) && (startRow == exitRow);
+            flipBits(rowBits, lane * cols + first, length);
+            for (int k = 0; k < length; k++) flipBits(colBits, (first + k) * rows + lane, 1);
         } 
         else 
         {
-            if (exitRow == this.getRows()-1)
-                return (endRow == this.getRows()-1) && (startCol == exitCol);
-            
-            else if (exitRow == 0)
-                return (startRow == 0) && (startCol == exitCol);
+            flipBits(colBits, lane * rows + first, length);
+            for (int k = 0; k < length; k++) flipBits(rowBits, (first + k) * cols + lane, 1);
         }
+    }
+
+    /**
+     * Pack a move into a single int: car index in the high half, signed amount in the low half
+     * 
+     * @param carIndex Index of the car to move
+     * @param move Amount to move (positive for right/down, negative for left/up)
+     * @return The packed move
+     */
+    public static int packMove(int carIndex, int move) { return (carIndex << 16) | (move & 0xFFFF); }
+    public static int moveCar(int packedMove) { return packedMove >>> 16; }
+    public static int moveAmount(int packedMove) { return (short) packedMove; }
+
+    /**
+     * Pack the offsets of all cars into a fixed-width key that identifies the position
+     * 
+     * @param key Destination array, receives getKeyWords() longs
+     * @param from Index in key to start writing at
+     */
+    public void packPositions(long[] key, int from) 
+    {
+        int keyBits = layout.getKeyBits();
+        int perWord = 64 / keyBits;
+        
+        for (int w = 0; w < layout.getKeyWords(); w++)
+            key[from + w] = 0;
         
-        return false;
+        for (int c = 0; c < offsets.length; c++)
+            key[from + c / perWord] |= (long) offsets[c] << ((c % perWord) * keyBits);
+    }
+
+    /**
+     * Check if the board is in a solved state (primary car at exit)
+     * 
+     * @return True if solved, false otherwise
+     */
+    public boolean isSolved() 
+    {
+        int goalOffset = layout.getGoalOffset();
+        return goalOffset != UNKNOWN && offsets[layout.getPrimaryIndex()] == goalOffset;
     }
 
     /**
@@ -256,31 +442,75 @@ public class Board {
      */
     public Board copy() 
     {
-        Board newBoard = new Board(this.getRows(), 
-                                   this.getCols(), 
-                                   this.getNumCars(), 
-                                   this.getExitRow(), 
-                                   this.getExitCol(),
-                                   this.getExitSide(),
-                                   this.getErrorMsg());
-        
-        // Copy the grid
-        for (int i = 0; i < this.getRows(); i++) 
-            System.arraycopy(this.grid[i], 0, newBoard.grid[i], 0, this.getCols());
-        
-        // Copy the cars
-        for (Car car : this.getCars()) 
+        return new Board(this);
+    }
+
+    /**
+     * Replace the cars on the board, building a new layout from them
+     * 
+     * @param carList The cars to place on the board
+     */
+    private void setCars(List<Car> carList) 
+    {
+        BoardLayout old = this.layout;
+        this.layout = new BoardLayout(old.getRows(), 
+                                      old.getCols(), 
+                                      old.getNumCars(), 
+                                      old.getExitRow(), 
+                                      old.getExitCol(), 
+                                      old.getExitSide(), 
+                                      old.getPalette(), 
+                                      carList);
+
+        this.offsets = new byte[carList.size()];
+        this.rowBits = new long[(getRows() * getCols() + 63) >>> 6];
+        this.colBits = new long[(getRows() * getCols() + 63) >>> 6];
+
+        byte[] positions = new byte[carList.size()];
+        for (int c = 0; c < positions.length; c++)
         {
-            Car newCar = car.copy();
-            newBoard.cars.add(newCar);
+            Car car = carList.get(c);
+            positions[c] = (byte) ((car.getOrientation() == HORIZONTAL) ? car.getStartCol() : car.getStartRow());
         }
+        setPositions(positions);
+    }
+
+    /**
+     * Read up to 64 consecutive bits from a bitboard
+     * 
+     * @param words The bitboard
+     * @param from Index of the first bit
+     * @param length Number of bits to read
+     * @return The bits, shifted down so that bit 0 is the bit at from
+     */
+    private static long extractBits(long[] words, int from, int length) 
+    {
+        int word = from >>> 6;
+        int shift = from & 63;
         
-        newBoard.exitRow  = this.getExitRow();
-        newBoard.exitCol  = this.getExitCol();
-        newBoard.errorMsg = this.getErrorMsg();
-        newBoard.currentMovedCarIndex = this.currentMovedCarIndex;
+        long bits = words[word] >>> shift;
+        if (shift != 0 && shift + length > 64)
+            bits |= words[word + 1] << (64 - shift);
         
-        return newBoard;
+        return (length == 64) ? bits : bits & ((1L << length) - 1);
+    }
+
+    /**
+     * Flip a run of consecutive bits in a bitboard
+     * 
+     * @param words The bitboard
+     * @param from Index of the first bit
+     * @param length Number of bits to flip, at most 64
+     */
+    private static void flipBits(long[] words, int from, int length) 
+    {
+        int word = from >>> 6;
+        int shift = from & 63;
+        long mask = (length == 64) ? -1L : (1L << length) - 1;
+        
+        words[word] ^= mask << shift;
+        if (shift != 0 && shift + length > 64)
+            words[word + 1] ^= mask >>> (64 - shift);
     }
 
     /**
@@ -290,7 +520,19 @@ public class Board {
      */
     public void loadConfiguration(ArrayList<String> boardConfig) 
     {
+        // Every lane has to fit in a single 64-bit word of the bitboard
+        if (this.getRows() > 64 || this.getCols() > 64)
+        {
+            this.errorMsg = "Board size exceeds the maximum of 64 rows or columns";
+            return;
+        }
+
         char[][] config = new char[this.getRows()][this.getCols()];
+        char[][] grid = this.getGrid();
+        int N = this.getNumCars();
+        int exitRow = this.getExitRow();
+        int exitCol = this.getExitCol();
+        String exitSide = this.getExitSide();
 
         for (int i = 0; i < this.getRows(); i++) 
             config[i] = boardConfig.get(i).toCharArray();
@@ -377,6 +619,7 @@ public class Board {
         }
         
         // Process all cars and create Car objects
+        List<Car> loadedCars = new ArrayList<>();
         for (Map.Entry<Character, ArrayList<int[]>> entry : carLocations.entrySet()) 
         {
             char id = entry.getKey();
@@ -392,8 +635,9 @@ public class Board {
             
             // Create the car
             Car car = new Car(id, startRow, startCol, size, isPrimary, orientation);
-            this.cars.add(car);
+            loadedCars.add(car);
         }
+        setCars(loadedCars);
 
         if (!foundPrimary) 
         {
@@ -485,6 +729,11 @@ public class Board {
     public String toString() 
     {
         StringBuilder sb = new StringBuilder();
+        char[][] grid = this.getGrid();
+        int exitRow = this.getExitRow();
+        int exitCol = this.getExitCol();
+        String exitSide = this.getExitSide();
+        String[] palette = this.getPalette();
         
         if (exitSide != null && exitSide.equalsIgnoreCase("TOP")) 
         {
@@ -530,7 +779,7 @@ public class Board {
                 {
                     boolean shouldColor = (currentMovedCarIndex == null) || 
                                          (currentMovedCarIndex != null && 
-                                          cars.get(currentMovedCarIndex).getId() == cell);
+                                          getCarId(currentMovedCarIndex) == cell);
                     
                     if (shouldColor) 
                     {
@@ -581,19 +830,14 @@ public class Board {
     }
 
     /**
-     * Get a string representation of the cars on the board
+     * Hash the cars on the board from the incrementally maintained Zobrist hash
      * 
-     * @return String representation of the cars
+     * @return Hash code consistent with equals
      */
     @Override
     public int hashCode() 
     {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < this.getRows(); i++)
-            for (int j = 0; j < this.getCols(); j++)
-                sb.append(grid[i][j]);
-        
-        return sb.toString().hashCode();
+        return Long.hashCode(zobristHash);
     }
     
     /**
@@ -610,10 +854,15 @@ public class Board {
         
         Board other = (Board) obj;
         if (this.getRows() != other.getRows() || this.getCols() != other.getCols()) return false;
+
+        // Copies of the same board only differ in car positions
+        if (this.layout == other.layout) return Arrays.equals(this.offsets, other.offsets);
         
+        char[][] grid = this.getGrid();
+        char[][] otherGrid = other.getGrid();
         for (int i = 0; i < this.getRows(); i++)
             for (int j = 0; j < this.getCols(); j++)
-                if (grid[i][j] != other.grid[i][j])
+                if (grid[i][j] != otherGrid[i][j])
                     return false;
         
         return true;
@@ -626,12 +875,8 @@ public class Board {
      */
     public Car getPrimaryCar() 
     {
-        for (Car car : this.getCars()) 
-        {
-            if (car.isPrimary()) 
-                return car;
-        }
-        return null; 
+        if (getPrimaryIndex() == UNKNOWN) return null;
+        return this.getCars().get(getPrimaryIndex());
     }
 
     /**
@@ -0,0 +1,177 @@
+package src.ADT;
+
+import java.util.List;
+
+/**
+ * Immutable part of a Rush Hour board: dimensions, exit and the attributes of every car
+ * that never change while searching. All boards reached from the same puzzle share one
+ * layout, so a position only needs the offset of each car along its lane.
+ */
+public class BoardLayout
+{
+    // Attributes
+    private final int A;                   // Number of rows in the board
+    private final int B;                   // Number of columns in the board
+    private final int N;                   // Number of cars on the board, excluding the primary car
+    private final int exitRow;             // Exit row position
+    private final int exitCol;             // Exit column position
+    private final String exitSide;         // Side of the exit
+    private final String[] palette;        // Color palette for cars
+    private final char[] ids;              // Character identifier of each car
+    private final int[] orientations;      // Orientation of each car
+    private final int[] lengths;           // Number of cells each car occupies
+    private final int[] lanes;             // Fixed lane of each car: row if horizontal, column if vertical
+    private final int primaryIndex;        // Index of the primary car, Board.UNKNOWN if missing
+    private final int goalOffset;          // Lane offset of the primary car when solved, Board.UNKNOWN if unreachable
+    private final int keyBits;             // Bits per car offset in the packed position key
+    private final int keyWords;            // Number of longs in the packed position key
+    private final int maxMoves;            // Upper bound on the number of moves in any position
+    private final long[][] zobristKeys;    // Zobrist key of each car at each lane offset
+    private final SlideTable rowSlides;    // Slide table for horizontal lanes, null if rows are too long
+    private final SlideTable colSlides;    // Slide table for vertical lanes, null if columns are too long
+
+    /**
+     * Constructor for the BoardLayout class
+     *
+     * @param rows Number of rows in the board
+     * @param cols Number of columns in the board
+     * @param numCars Number of cars on the board, excluding the primary car
+     * @param exitRow Row position of the exit
+     * @param exitCol Column position of the exit
+     * @param exitSide Side of the exit
+     * @param palette Color palette for cars
+     * @param cars The cars of the puzzle, in car index order
+     */
+    public BoardLayout(int rows,
+                       int cols,
+                       int numCars,
+                       int exitRow,
+                       int exitCol,
+                       String exitSide,
+                       String[] palette,
+                       List<Car> cars)
+    {
+        int count = cars.size();
+
+        this.A            = rows;
+        this.B            = cols;
+        this.N            = numCars;
+        this.exitRow      = exitRow;
+        this.exitCol      = exitCol;
+        this.exitSide     = exitSide;
+        this.palette      = palette;
+        this.ids          = new char[count];
+        this.orientations = new int[count];
+        this.lengths      = new int[count];
+        this.lanes        = new int[count];
+        this.zobristKeys  = new long[count][];
+        this.rowSlides    = SlideTable.forLength(cols);
+        this.colSlides    = SlideTable.forLength(rows);
+
+        int primary = Board.UNKNOWN;
+        int moveBound = 0;
+        for (int c = 0; c < count; c++)
+        {
+            Car car = cars.get(c);
+            ids[c]          = car.getId();
+            orientations[c] = car.getOrientation();
+            lengths[c]      = car.getLength();
+            lanes[c]        = (car.getOrientation() == Board.HORIZONTAL) ? car.getStartRow() : car.getStartCol();
+
+            // Keys depend only on the car and its cells, so boards with equal grids hash equally
+            zobristKeys[c] = new long[getLaneLength(c)];
+            for (int offset = 0; offset < zobristKeys[c].length; offset++)
+            {
+                int row = (orientations[c] == Board.HORIZONTAL) ? lanes[c] : offset;
+                int col = (orientations[c] == Board.HORIZONTAL) ? offset : lanes[c];
+                zobristKeys[c][offset] = zobristKey(ids[c], row, col);
+            }
+
+            // A car can move to at most every other offset of its lane
+            moveBound += getLaneLength(c) - lengths[c];
+
+            if (car.isPrimary()) primary = c;
+        }
+        this.primaryIndex = primary;
+        this.maxMoves = moveBound;
+
+        // The primary car must reach the board edge at the exit, within the exit's row or column
+        int goal = Board.UNKNOWN;
+        if (primary != Board.UNKNOWN)
+        {
+            if (orientations[primary] == Board.HORIZONTAL && lanes[primary] == exitRow)
+            {
+                if (exitCol == B - 1) goal = B - lengths[primary];
+                else if (exitCol == 0) goal = 0;
+            }
+            else if (orientations[primary] == Board.VERTICAL && lanes[primary] == exitCol)
+            {
+                if (exitRow == A - 1) goal = A - lengths[primary];
+                else if (exitRow == 0) goal = 0;
+            }
+        }
+        this.goalOffset = goal;
+
+        // Offsets are below the longest side, pack as many as fit into each long
+        this.keyBits  = Math.max(1, 32 - Integer.numberOfLeadingZeros(Math.max(A, B) - 1));
+        this.keyWords = Math.max(1, (count + (64 / keyBits) - 1) / (64 / keyBits));
+    }
+
+    public int getRows() { return this.A; }
+    public int getCols() { return this.B; }
+    public int getNumCars() { return this.N; }
+    public int getExitRow() { return this.exitRow; }
+    public int getExitCol() { return this.exitCol; }
+    public String getExitSide() { return this.exitSide; }
+    public String[] getPalette() { return this.palette; }
+    public int getCarCount() { return this.ids.length; }
+    public char getCarId(int carIndex) { return this.ids[carIndex]; }
+    public int getCarOrientation(int carIndex) { return this.orientations[carIndex]; }
+    public int getCarLength(int carIndex) { return this.lengths[carIndex]; }
+    public int getCarLane(int carIndex) { return this.lanes[carIndex]; }
+    public int getPrimaryIndex() { return this.primaryIndex; }
+    public int getGoalOffset() { return this.goalOffset; }
+    public int getKeyBits() { return this.keyBits; }
+    public int getKeyWords() { return this.keyWords; }
+    public int getMaxMoves() { return this.maxMoves; }
+    public long getZobristKey(int carIndex, int offset) { return this.zobristKeys[carIndex][offset]; }
+
+    /**
+     * Get the precomputed slide table for the lane a car slides along
+     *
+     * @param carIndex Index of the car
+     * @return The shared table, or null if the lane is too long to tabulate
+     */
+    public SlideTable getSlideTable(int carIndex)
+    {
+        return (orientations[carIndex] == Board.HORIZONTAL) ? rowSlides : colSlides;
+    }
+
+    /**
+     * Get the number of cells in the lane a car slides along
+     *
+     * @param carIndex Index of the car
+     * @return Number of columns for horizontal cars, number of rows for vertical cars
+     */
+    public int getLaneLength(int carIndex)
+    {
+        return (orientations[carIndex] == Board.HORIZONTAL) ? B : A;
+    }
+
+    /**
+     * Generate the Zobrist key of a car whose first cell is at a given position
+     *
+     * @param id Character identifier of the car
+     * @param row Row of the car's first cell
+     * @param col Column of the car's first cell
+     * @return A pseudo-random 64-bit key
+     */
+    private static long zobristKey(char id, int row, int col)
+    {
+        // SplitMix64 finalizer over the packed (id, row, col)
+        long z = (((long) id << 32) | ((long) row << 16) | col) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,147 @@
+package src.ADT;
+
+import java.util.Arrays;
+
+/**
+ * Bucket-based (Dial) priority queue for small non-negative integer priorities.
+ * Items are kept in one stack per (priority, tie) pair, so add and poll are O(1)
+ * apart from skipping empty buckets, with no comparator calls.
+ *
+ * Poll returns an item with the lowest priority, among those the lowest tie value,
+ * and among equal pairs the most recently added one.
+ *
+ * @param <T> Type of the queued items
+ */
+public class BucketQueue<T>
+{
+    // Constants
+    private static final int INITIAL_BUCKETS = 16;
+    private static final int INITIAL_STACK = 4;
+
+    // Attributes
+    private Object[][][] stacks; // stacks[priority][tie] holds the items of that pair, last added on top
+    private int[][] counts;      // counts[priority][tie] is the number of items in that stack
+    private int[] bucketSizes;   // Number of items with each priority
+    private int[] minTies;       // Lowest tie value that may be non-empty, per priority
+    private int minPriority;     // Lowest priority that may be non-empty
+    private int size;            // Number of items in the queue
+
+    /**
+     * Constructor for the BucketQueue class
+     */
+    public BucketQueue()
+    {
+        this.stacks      = new Object[INITIAL_BUCKETS][][];
+        this.counts      = new int[INITIAL_BUCKETS][];
+        this.bucketSizes = new int[INITIAL_BUCKETS];
+        this.minTies     = new int[INITIAL_BUCKETS];
+        this.minPriority = 0;
+        this.size        = 0;
+    }
+
+    public int size() { return this.size; }
+    public boolean isEmpty() { return this.size == 0; }
+
+    /**
+     * Add an item to the queue
+     *
+     * @param item The item to add
+     * @param priority Primary key, lower is polled first
+     * @param tie Secondary key among items of equal priority, lower is polled first
+     */
+    public void add(T item, int priority, int tie)
+    {
+        if (priority < 0 || tie < 0)
+            throw new IllegalArgumentException("Negative priority: " + priority + ", " + tie);
+
+        if (priority >= bucketSizes.length) growBuckets(priority + 1);
+        if (stacks[priority] == null)
+        {
+            stacks[priority] = new Object[Math.max(INITIAL_BUCKETS, tie + 1)][];
+            counts[priority] = new int[stacks[priority].length];
+        }
+        if (tie >= counts[priority].length) growTies(priority, tie + 1);
+
+        Object[][] bucket = stacks[priority];
+        int count = counts[priority][tie];
+        if (bucket[tie] == null) bucket[tie] = new Object[INITIAL_STACK];
+        else if (count == bucket[tie].length)
+        {
+            Object[] grown = new Object[count << 1];
+            System.arraycopy(bucket[tie], 0, grown, 0, count);
+            bucket[tie] = grown;
+        }
+
+        bucket[tie][count] = item;
+        counts[priority][tie] = count + 1;
+
+        if (bucketSizes[priority] == 0 || tie < minTies[priority]) minTies[priority] = tie;
+        if (size == 0 || priority < minPriority) minPriority = priority;
+
+        bucketSizes[priority]++;
+        size++;
+    }
+
+    /**
+     * Remove and return the item with the lowest (priority, tie)
+     *
+     * @return The item, or null if the queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T poll()
+    {
+        if (size == 0) return null;
+
+        while (bucketSizes[minPriority] == 0) minPriority++;
+
+        int priority = minPriority;
+        int tie = minTies[priority];
+        while (counts[priority][tie] == 0) tie++;
+        minTies[priority] = tie;
+
+        Object[] stack = stacks[priority][tie];
+        int count = --counts[priority][tie];
+        T item = (T) stack[count];
+        stack[count] = null;
+
+        bucketSizes[priority]--;
+        size--;
+        return item;
+    }
+
+    /**
+     * Get the lowest priority currently in the queue
+     *
+     * @return The lowest priority, or -1 if the queue is empty
+     */
+    public int peekPriority()
+    {
+        if (size == 0) return -1;
+
+        while (bucketSizes[minPriority] == 0) minPriority++;
+        return minPriority;
+    }
+
+    private void growBuckets(int needed)
+    {
+        int capacity = Math.max(needed, bucketSizes.length << 1);
+
+        Object[][][] newStacks = new Object[capacity][][];
+        int[][] newCounts = new int[capacity][];
+        System.arraycopy(stacks, 0, newStacks, 0, stacks.length);
+        System.arraycopy(counts, 0, newCounts, 0, counts.length);
+
+        this.stacks      = newStacks;
+        this.counts      = newCounts;
+        this.bucketSizes = Arrays.copyOf(bucketSizes, capacity);
+        this.minTies     = Arrays.copyOf(minTies, capacity);
+    }
+
+    private void growTies(int priority, int needed)
+    {
+        int capacity = Math.max(needed, counts[priority].length << 1);
+
+        stacks[priority] = Arrays.copyOf(stacks[priority], capacity);
+        counts[priority] = Arrays.copyOf(counts[priority], capacity);
+    }
+}
@@ -0,0 +1,216 @@
+package src.ADT;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Exact number of moves to the nearest solved position, for every position of a puzzle
+ * layout from which the exit can be reached. The table is built once by a breadth-first
+ * search backwards from all solved positions, every move being undone by the opposite
+ * move, and can then be shared by every board with the same layout.
+ *
+ * When the layout has few enough ranks (see PositionRanker), the distances are kept in
+ * a byte array indexed by rank, one byte per possible position and no keys. Otherwise,
+ * or if a distance does not fit in a byte, they are kept in a PositionMap.
+ *
+ * The table holds every position of the layout, not only those reachable from one
+ * board, so layouts with more ranks than MAX_TABLE_RANKS are refused; check canBuild
+ * before building a table for an arbitrary board.
+ */
+public class DistanceTable
+{
+    // Constants
+    public static final int UNREACHABLE = -1; // Distance of positions that cannot reach the exit
+
+    private static final long MAX_TABLE_RANKS = 1L << 30; // Largest rank count a table is built for
+    private static final long MAX_DENSE_RANKS = 1L << 24; // Largest rank count kept as a byte array, 16 MB
+    private static final int MAX_DENSE_DISTANCE = 254;    // Largest distance a dense entry can hold
+    private static final int MIN_LAYER = 16;              // Initial capacity of the moves of a layer
+
+    // Attributes
+    private final BoardLayout layout;    // Layout the table was built for
+    private final PositionRanker ranker; // Ranker of the layout, null if the table is not dense
+    private byte[] dense;                // Distance + 1 of each position by rank, 0 if unreachable; null if not dense
+    private PositionMap distances;       // Distance of each position in the cluster; null while dense
+    private int size;                    // Number of positions in the table
+    private final int maxDistance;       // Largest distance in the table
+
+    /**
+     * Constructor for the DistanceTable class, runs the backward search
+     *
+     * @param board Any board of the layout, see canBuild
+     */
+    public DistanceTable(Board board)
+    {
+        PositionRanker layoutRanker = new PositionRanker(board);
+        if (!layoutRanker.fitsIn(MAX_TABLE_RANKS))
+            throw new IllegalArgumentException("Layout too large for a distance table: " + rankCountOf(layoutRanker));
+
+        this.layout = board.getLayout();
+        this.size   = 0;
+
+        if (layoutRanker.fitsIn(MAX_DENSE_RANKS))
+        {
+            this.ranker    = layoutRanker;
+            this.dense     = new byte[(int) layoutRanker.getRankCount()];
+            this.distances = null;
+        }
+        else
+        {
+            this.ranker    = null;
+            this.dense     = null;
+            this.distances = new PositionMap(board);
+        }
+
+        Board curBoard = board.copy();
+        int[] moveBuffer = new int[board.getMaxMoves()];
+
+        List<byte[]> layer = new ArrayList<>();
+        GoalPositions goals = new GoalPositions(board);
+        while (goals.hasNext())
+        {
+            byte[] goal = goals.next();
+            curBoard.setPositions(goal);
+            store(curBoard, 0);
+            layer.add(goal);
+        }
+
+        // Move that reached each position of the layer, for commutativity pruning
+        int[] layerMoves = new int[layer.size()];
+        Arrays.fill(layerMoves, MovePruning.NO_MOVE);
+
+        int distance = 0;
+        while (!layer.isEmpty())
+        {
+            List<byte[]> next = new ArrayList<>();
+            int[] nextMoves = new int[MIN_LAYER];
+            for (int k = 0; k < layer.size(); k++)
+            {
+                curBoard.setPositions(layer.get(k));
+
+                int moveCount = curBoard.generateMoves(moveBuffer);
+                for (int m = 0; m < moveCount; m++)
+                {
+                    if (MovePruning.isRedundant(curBoard, layerMoves[k], moveBuffer[m])) continue;
+
+                    int i = Board.moveCar(moveBuffer[m]);
+                    int moveAmount = Board.moveAmount(moveBuffer[m]);
+
+                    // Layers are expanded in order, so the first distance found is the shortest
+                    curBoard.doMove(i, moveAmount);
+                    if (getDistance(curBoard) == UNREACHABLE)
+                    {
+                        store(curBoard, distance + 1);
+                        if (next.size() == nextMoves.length) nextMoves = Arrays.copyOf(nextMoves, 2 * nextMoves.length);
+                        nextMoves[next.size()] = moveBuffer[m];
+                        next.add(curBoard.getPositions());
+                    }
+                    curBoard.undoMove(i, moveAmount);
+                }
+            }
+
+            if (!next.isEmpty()) distance++;
+            layer = next;
+            layerMoves = nextMoves;
+        }
+        this.maxDistance = distance;
+    }
+
+    /**
+     * Check whether a table can be built for a board's layout in reasonable time and memory
+     *
+     * @param board Any board of the layout
+     * @return True if the layout has at most MAX_TABLE_RANKS ranks
+     */
+    public static boolean canBuild(Board board)
+    {
+        return new PositionRanker(board).fitsIn(MAX_TABLE_RANKS);
+    }
+
+    private static String rankCountOf(PositionRanker ranker)
+    {
+        long ranks = ranker.getRankCount();
+        return (ranks == PositionRanker.TOO_MANY) ? "too many ranks to count" : ranks + " ranks";
+    }
+
+    public BoardLayout getLayout() { return this.layout; }
+    public int size() { return this.size; }
+    public boolean isDense() { return this.dense != null; }
+    public int getMaxDistance() { return this.maxDistance; }
+
+    /**
+     * Check whether a board can be looked up in this table
+     *
+     * @param board The board to check
+     * @return True if the board has the layout the table was built for
+     */
+    public boolean covers(Board board)
+    {
+        return board.getLayout() == this.layout;
+    }
+
+    /**
+     * Get the number of moves from a position to the nearest solved position
+     *
+     * @param board The board to look up, with the layout of this table
+     * @return The exact distance, or UNREACHABLE if the exit cannot be reached
+     */
+    public int getDistance(Board board)
+    {
+        if (dense != null) return (dense[(int) ranker.rank(board)] & 0xFF) - 1;
+
+        int distance = distances.get(board);
+        return (distance == PositionMap.MISSING) ? UNREACHABLE : distance;
+    }
+
+    /**
+     * Get the distance of a position from its rank, only for dense tables
+     *
+     * @param rank Rank of the position, see PositionRanker
+     * @return The exact distance, or UNREACHABLE if the exit cannot be reached
+     */
+    public int getDistance(long rank)
+    {
+        if (dense == null) throw new IllegalStateException("Distance table is not indexed by rank");
+        return (dense[(int) rank] & 0xFF) - 1;
+    }
+
+    /**
+     * Record the distance of a position that is not in the table yet
+     *
+     * @param board The board holding the position
+     * @param distance Its distance to the goal
+     */
+    private void store(Board board, int distance)
+    {
+        if (dense != null && distance > MAX_DENSE_DISTANCE) toSparse(board);
+
+        if (dense != null) dense[(int) ranker.rank(board)] = (byte) (distance + 1);
+        else distances.put(board, distance);
+        size++;
+    }
+
+    /**
+     * Move every dense entry into a PositionMap, for distances that do not fit in a byte
+     *
+     * @param board Any board of the layout, restored before returning
+     */
+    private void toSparse(Board board)
+    {
+        byte[] saved = board.getPositions();
+        byte[] positions = new byte[ranker.getCarCount()];
+        this.distances = new PositionMap(board);
+
+        for (int rank = 0; rank < dense.length; rank++)
+        {
+            if (dense[rank] == 0 || !ranker.unrank(rank, positions)) continue;
+
+            board.setPositions(positions);
+            distances.put(board, (dense[rank] & 0xFF) - 1);
+        }
+
+        this.dense = null;
+        board.setPositions(saved);
+    }
+}
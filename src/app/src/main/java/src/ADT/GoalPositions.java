@@ -0,0 +1,185 @@
+package src.ADT;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy enumeration of every solved position of a puzzle: the primary car at its goal
+ * offset and every other car at any offset of its lane that does not overlap another car.
+ * Positions are produced one at a time by a backtracking search over the car offsets,
+ * so only the positions a solver actually asks for are ever built. Cars can also be held
+ * at the offsets of a given board, which leaves only the solved positions where they
+ * did not move.
+ */
+public class GoalPositions implements Iterator<byte[]>
+{
+    // Attributes
+    private final BoardLayout layout;  // Layout of the puzzle
+    private final int[] order;         // Indices of the cars placed by the search, primary excluded
+    private final byte[] offsets;      // Offset of each car in the position being built
+    private final boolean[] occupied;  // Cells covered by the cars placed so far, row-major
+    private int depth;                 // Number of cars of order placed so far
+    private boolean ready;             // Whether offsets holds a complete position not returned yet
+    private boolean done;              // Whether every position has been returned
+
+    /**
+     * Constructor for the GoalPositions class
+     *
+     * @param board Any board of the puzzle
+     */
+    public GoalPositions(Board board)
+    {
+        this(board, new boolean[board.getCarCount()]);
+    }
+
+    /**
+     * Constructor for the GoalPositions class, with some cars kept where they are
+     *
+     * @param board The board whose offsets the held cars keep
+     * @param held Whether each car stays at its offset on the board instead of taking every free offset,
+     *             ignored for the primary car
+     */
+    public GoalPositions(Board board, boolean[] held)
+    {
+        this.layout   = board.getLayout();
+        this.offsets  = new byte[layout.getCarCount()];
+        this.occupied = new boolean[layout.getRows() * layout.getCols()];
+        this.depth    = 0;
+        this.ready    = false;
+
+        int primary = layout.getPrimaryIndex();
+        int free = 0;
+        for (int c = 0; c < layout.getCarCount(); c++)
+            if (c != primary && !held[c]) free++;
+        this.order = new int[free];
+
+        this.done = (primary == Board.UNKNOWN || layout.getGoalOffset() == Board.UNKNOWN);
+        if (done) return;
+
+        for (int c = 0, k = 0; c < layout.getCarCount(); c++)
+        {
+            if (c == primary) continue;
+            if (!held[c]) order[k++] = c;
+            else
+            {
+                offsets[c] = (byte) board.getCarOffset(c);
+                mark(c, true);
+            }
+        }
+
+        // A held car on the goal cells leaves no solved position
+        offsets[primary] = (byte) layout.getGoalOffset();
+        if (!fits(primary, offsets[primary]))
+        {
+            this.done = true;
+            return;
+        }
+        mark(primary, true);
+
+        // Start from the smallest offset of the first car
+        this.ready = place(0);
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        if (!ready && !done) ready = advance();
+        return ready;
+    }
+
+    @Override
+    public byte[] next()
+    {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        ready = false;
+        return offsets.clone();
+    }
+
+    /**
+     * Step from the position last returned to the next one
+     *
+     * @return True if there is another position, false once all were returned
+     */
+    private boolean advance()
+    {
+        if (depth == 0)
+        {
+            done = true;
+            return false;
+        }
+
+        depth--;
+        mark(order[depth], false);
+        return place(offsets[order[depth]] + 1);
+    }
+
+    /**
+     * Place the remaining cars at the smallest free offsets, backtracking when a car does not fit
+     *
+     * @param from Smallest offset to try for the car at the current depth
+     * @return True if every car was placed, false if no placement is left
+     */
+    private boolean place(int from)
+    {
+        int offset = from;
+
+        while (depth < order.length)
+        {
+            int car = order[depth];
+            int last = layout.getLaneLength(car) - layout.getCarLength(car);
+
+            while (offset <= last && !fits(car, offset)) offset++;
+
+            if (offset <= last)
+            {
+                offsets[car] = (byte) offset;
+                mark(car, true);
+                depth++;
+                offset = 0;
+            }
+            else if (depth == 0)
+            {
+                done = true;
+                return false;
+            }
+            else
+            {
+                depth--;
+                mark(order[depth], false);
+                offset = offsets[order[depth]] + 1;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean fits(int car, int offset)
+    {
+        for (int k = 0; k < layout.getCarLength(car); k++)
+            if (occupied[cell(car, offset + k)]) return false;
+
+        return true;
+    }
+
+    private void mark(int car, boolean value)
+    {
+        for (int k = 0; k < layout.getCarLength(car); k++)
+            occupied[cell(car, offsets[car] + k)] = value;
+    }
+
+    /**
+     * Get the row-major index of a cell of a car's lane
+     *
+     * @param car Index of the car
+     * @param along Position along the lane
+     * @return Index of the cell in occupied
+     */
+    private int cell(int car, int along)
+    {
+        int lane = layout.getCarLane(car);
+        return (layout.getCarOrientation(car) == Board.HORIZONTAL)
+            ? lane * layout.getCols() + along
+            : along * layout.getCols() + lane;
+    }
+}
@@ -0,0 +1,94 @@
+package src.ADT;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size, lossy set of positions keyed by their 64-bit Zobrist hash.
+ * Lookups probe a short window of slots; when the whole window is taken, the new
+ * position overwrites the slot it hashes to, whatever its age, and the position held
+ * there is forgotten. The set therefore never grows. A forgotten position is reported
+ * as new again, which only costs repeated work. Only the hash is stored, so a new
+ * position whose hash matches a stored one is reported as already seen: a search that
+ * skips seen positions then drops it, and can miss the solutions only it leads to.
+ */
+public class HashFilter
+{
+    // Constants
+    private static final int PROBES = 8;           // Slots checked before an entry is overwritten
+    private static final int MAX_SLOTS = 1 << 30;
+    private static final long EMPTY = 0;           // Key of an unused slot, hashes equal to it are stored as 1
+
+    // Attributes
+    private final long[] keys; // Zobrist hash of the position in each slot, EMPTY if unused
+    private final int mask;    // Number of slots - 1, the number of slots is a power of two
+
+    /**
+     * Constructor for the HashFilter class
+     *
+     * @param capacity Number of positions to hold, rounded up to a power of two
+     */
+    public HashFilter(int capacity)
+    {
+        int slots = Integer.highestOneBit(Math.max(PROBES, Math.min(MAX_SLOTS, capacity)) - 1) << 1;
+        this.keys = new long[slots];
+        this.mask = slots - 1;
+    }
+
+    public int capacity() { return this.keys.length; }
+
+    /**
+     * Check whether a position is in the set
+     *
+     * @param board The board holding the position
+     * @return True if the position was added and not forgotten since
+     */
+    public boolean contains(Board board)
+    {
+        long key = board.getZobristHash();
+        if (key == EMPTY) key = 1;
+
+        int home = (int) (key ^ (key >>> 32)) & mask;
+        for (int k = 0; k < PROBES; k++)
+        {
+            long stored = keys[(home + k) & mask];
+            if (stored == key) return true;
+            if (stored == EMPTY) return false;
+        }
+        return false;
+    }
+
+    /**
+     * Add a position if it is not in the set
+     *
+     * @param board The board holding the position
+     * @return True if the position was not in the set, or was forgotten since it was added
+     */
+    public boolean add(Board board)
+    {
+        long key = board.getZobristHash();
+        if (key == EMPTY) key = 1;
+
+        int home = (int) (key ^ (key >>> 32)) & mask;
+        for (int k = 0; k < PROBES; k++)
+        {
+            int slot = (home + k) & mask;
+            if (keys[slot] == key) return false;
+            if (keys[slot] == EMPTY)
+            {
+                keys[slot] = key;
+                return true;
+            }
+        }
+
+        keys[home] = key;
+        return true;
+    }
+
+    /**
+     * Remove every position
+     */
+    public void clear()
+    {
+        Arrays.fill(keys, EMPTY);
+    }
+}
@@ -0,0 +1,60 @@
+package src.ADT;
+
+/**
+ * Heuristic evaluated on board positions by the informed solvers.
+ *
+ * Solvers evaluate the initial board with calculate and every successor with delta,
+ * which gets the value of the parent and the move that was made. Heuristics that
+ * only depend on a few cars override delta to skip the full evaluation when the move
+ * cannot change the value; the others fall back to calculate.
+ */
+@FunctionalInterface
+public interface Heuristic
+{
+    /**
+     * Calculate the heuristic value of a board from scratch
+     *
+     * @param board The board to evaluate
+     * @return A lower bound on the number of moves to solve the board, State.INVALID if it cannot be solved
+     */
+    int calculate(Board board);
+
+    /**
+     * Get the heuristic value of a board reached by one move
+     *
+     * @param board The board after the move
+     * @param parentH Heuristic value of the board before the move
+     * @param move The packed move that was made, see Board.packMove
+     * @return The same value calculate would return for the board
+     */
+    default int delta(Board board, int parentH, int move)
+    {
+        return calculate(board);
+    }
+
+    /**
+     * Check whether a move changed which cells of the primary car's lane a crossing car covers
+     *
+     * @param board The board after the move
+     * @param move The packed move that was made, the primary car must exist and not be the car moved
+     * @return True if the moved car shares the primary car's lane, or crossed it before or after the move but not both
+     */
+    static boolean changesPrimaryLane(Board board, int move)
+    {
+        BoardLayout layout = board.getLayout();
+        int car = Board.moveCar(move);
+        int primary = board.getPrimaryIndex();
+        int lane = layout.getCarLane(primary);
+
+        if (layout.getCarOrientation(car) == layout.getCarOrientation(primary))
+            return layout.getCarLane(car) == lane;
+
+        // A crossing car that still covers the same cell of the lane, or never did, changes nothing
+        int length = layout.getCarLength(car);
+        int after = board.getCarOffset(car);
+        int before = after - Board.moveAmount(move);
+        boolean coversAfter = after <= lane && lane < after + length;
+        boolean coversBefore = before <= lane && lane < before + length;
+        return coversAfter != coversBefore;
+    }
+}
@@ -0,0 +1,26 @@
+package src.ADT;
+
+/**
+ * Distance from the primary car to the exit, see State.calculateManhattanDistanceHeuristic.
+ * Only moves of the primary car change it.
+ */
+public class ManhattanHeuristic implements Heuristic
+{
+    // Constants
+    public static final ManhattanHeuristic INSTANCE = new ManhattanHeuristic(); // The heuristic keeps no state
+
+    private ManhattanHeuristic() {}
+
+    @Override
+    public int calculate(Board board)
+    {
+        return State.calculateManhattanDistanceHeuristic(board);
+    }
+
+    @Override
+    public int delta(Board board, int parentH, int move)
+    {
+        if (parentH == State.INVALID || Board.moveCar(move) == board.getPrimaryIndex()) return calculate(board);
+        return parentH;
+    }
+}
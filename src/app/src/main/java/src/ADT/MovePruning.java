@@ -0,0 +1,63 @@
+package src.ADT;
+
+/**
+ * Commutativity pruning of successor moves.
+ *
+ * Two moves of different cars commute when the cells each car sweeps over, from where
+ * it starts to where it stops, do not overlap: both orders are legal and reach the same
+ * position. Of the two orders only the one that moves the car with the lower index first
+ * is generated, so a move is skipped right after a commuting move of a car with a higher
+ * index.
+ *
+ * Every position keeps a shortest path made of generated moves as long as the solver
+ * expands positions in order of their number of moves and keeps the first path to each,
+ * like breadth-first search, or follows every path like depth-first search.
+ */
+public class MovePruning
+{
+    // Constants
+    public static final int NO_MOVE = 0; // Packed move of nothing, the last move of the initial position
+
+    private MovePruning() {}
+
+    /**
+     * Check whether a move only reaches a position that the other order of the two last moves reaches
+     *
+     * @param board The board after the last move
+     * @param lastMove The packed move that reached the board, NO_MOVE at the initial position
+     * @param move A packed move generated on the board
+     * @return True if the move commutes with the last move and moves a car with a lower index
+     */
+    public static boolean isRedundant(Board board, int lastMove, int move)
+    {
+        if (lastMove == NO_MOVE) return false;
+
+        int lastCar = Board.moveCar(lastMove);
+        int car = Board.moveCar(move);
+        if (car >= lastCar) return false;
+
+        BoardLayout layout = board.getLayout();
+
+        // Cells swept by each move along its lane, start and end positions included
+        int lastTo = board.getCarOffset(lastCar);
+        int lastFrom = lastTo - Board.moveAmount(lastMove);
+        int lastLo = Math.min(lastFrom, lastTo);
+        int lastHi = Math.max(lastFrom, lastTo) + layout.getCarLength(lastCar) - 1;
+
+        int from = board.getCarOffset(car);
+        int to = from + Board.moveAmount(move);
+        int lo = Math.min(from, to);
+        int hi = Math.max(from, to) + layout.getCarLength(car) - 1;
+
+        int lastLane = layout.getCarLane(lastCar);
+        int lane = layout.getCarLane(car);
+
+        if (layout.getCarOrientation(car) == layout.getCarOrientation(lastCar))
+            return lane != lastLane || hi < lastLo || lastHi < lo;
+
+        // Crossing lanes meet in a single cell
+        boolean lastCovers = lastLo <= lane && lane <= lastHi;
+        boolean covers = lo <= lastLane && lastLane <= hi;
+        return !(lastCovers && covers);
+    }
+}
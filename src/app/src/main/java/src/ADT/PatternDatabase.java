@@ -0,0 +1,83 @@
+package src.ADT;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pattern database for one subset of the cars of a puzzle layout.
+ * The puzzle is abstracted to the primary car and the chosen cars, every other car is
+ * removed, and the abstraction is solved exhaustively with a DistanceTable. Removing
+ * cars only frees cells and drops moves, so the abstract distance never exceeds the
+ * real one and is an admissible heuristic.
+ *
+ * Lookups rank the offsets of the chosen cars straight from the full board, so they
+ * allocate nothing and can run on several threads at once.
+ */
+public class PatternDatabase
+{
+    // Attributes
+    private final int[] cars;          // Indices in the full layout of the cars of the pattern, primary included
+    private final long[] weights;      // Rank weight of each car of the pattern
+    private final DistanceTable table; // Exact distances of the abstract puzzle
+
+    /**
+     * Constructor for the PatternDatabase class, solves the abstract puzzle
+     *
+     * @param board Any board of the full layout
+     * @param cars Indices of the cars to keep, the primary car must be one of them
+     */
+    public PatternDatabase(Board board, int[] cars)
+    {
+        this.cars = cars.clone();
+
+        List<Car> kept = new ArrayList<>(cars.length);
+        byte[] positions = new byte[cars.length];
+        for (int k = 0; k < cars.length; k++)
+        {
+            kept.add(board.getCars().get(cars[k]));
+            positions[k] = (byte) board.getCarOffset(cars[k]);
+        }
+
+        BoardLayout layout = new BoardLayout(board.getRows(),
+                                             board.getCols(),
+                                             cars.length - 1,
+                                             board.getExitRow(),
+                                             board.getExitCol(),
+                                             board.getExitSide(),
+                                             board.getPalette(),
+                                             kept);
+        Board abstractBoard = new Board(layout, positions);
+
+        PositionRanker ranker = new PositionRanker(abstractBoard);
+        this.weights = new long[cars.length];
+        for (int k = 0; k < cars.length; k++) weights[k] = ranker.getWeight(k);
+
+        this.table = new DistanceTable(abstractBoard);
+    }
+
+    public int[] getCars() { return this.cars.clone(); }
+    public int size() { return this.table.size(); }
+
+    /**
+     * Check whether lookups can be answered, which needs the table to be indexed by rank
+     *
+     * @return True if the abstract puzzle was small enough for a dense table
+     */
+    public boolean isUsable() { return this.table.isDense(); }
+
+    /**
+     * Get the abstract distance of a position of the full layout
+     *
+     * @param board The board to look up
+     * @return A lower bound on the number of moves to solve the board, State.INVALID if it cannot be solved
+     */
+    public int calculate(Board board)
+    {
+        long rank = 0;
+        for (int k = 0; k < cars.length; k++)
+            rank += board.getCarOffset(cars[k]) * weights[k];
+
+        int distance = table.getDistance(rank);
+        return (distance == DistanceTable.UNREACHABLE) ? State.INVALID : distance;
+    }
+}
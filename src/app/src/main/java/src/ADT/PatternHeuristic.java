@@ -0,0 +1,190 @@
+package src.ADT;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Heuristic taking the maximum over several pattern databases of one puzzle layout.
+ * The cars are split into groups, the ones crossing the primary car's path first and
+ * then the ones that can block those, and each group gets a pattern database as large
+ * as MAX_PATTERN_RANKS allows. The maximum of admissible values is admissible.
+ *
+ * Building the databases is the expensive part, so the heuristic is built once per
+ * layout and shared by every solver, the same way SlideTable shares its tables.
+ * Moves of cars that are in no database leave the value unchanged.
+ */
+public class PatternHeuristic implements Heuristic
+{
+    // Constants
+    private static final long MAX_PATTERN_RANKS = 1L << 21; // Largest abstract rank count of one database
+
+    private static final Map<BoardLayout, PatternHeuristic> CACHE = new WeakHashMap<>();
+
+    // Attributes
+    private final PatternDatabase[] databases; // Databases combined by maximum
+    private final boolean[] used;              // Whether each car is part of some database
+
+    /**
+     * Constructor for the PatternHeuristic class, builds every database
+     *
+     * @param board Any board of the layout
+     */
+    private PatternHeuristic(Board board)
+    {
+        List<PatternDatabase> built = new ArrayList<>();
+        int primary = board.getPrimaryIndex();
+
+        if (primary != Board.UNKNOWN && board.getLayout().getGoalOffset() != Board.UNKNOWN)
+        {
+            int[] relevance = relevance(board);
+            int primaryRadix = radix(board, primary);
+
+            // Most relevant cars first, cars with no relation to the primary car's path are left out
+            for (int level = 0; level < 2; level++)
+            {
+                List<Integer> group = new ArrayList<>();
+                long ranks = primaryRadix;
+
+                for (int c = 0; c < board.getCarCount(); c++)
+                {
+                    if (relevance[c] != level) continue;
+
+                    if (ranks * radix(board, c) > MAX_PATTERN_RANKS && !group.isEmpty())
+                    {
+                        addDatabase(board, primary, group, built);
+                        group.clear();
+                        ranks = primaryRadix;
+                    }
+                    group.add(c);
+                    ranks *= radix(board, c);
+                }
+                if (!group.isEmpty()) addDatabase(board, primary, group, built);
+            }
+        }
+
+        this.databases = built.toArray(new PatternDatabase[0]);
+        this.used = new boolean[board.getCarCount()];
+        for (PatternDatabase database : databases)
+            for (int car : database.getCars()) used[car] = true;
+    }
+
+    /**
+     * Get the heuristic of a layout, building it on first use
+     *
+     * @param board Any board of the layout
+     * @return The shared heuristic
+     */
+    public static synchronized PatternHeuristic forBoard(Board board)
+    {
+        return CACHE.computeIfAbsent(board.getLayout(), layout -> new PatternHeuristic(board));
+    }
+
+    public int getDatabaseCount() { return this.databases.length; }
+
+    /**
+     * Calculate the heuristic value of a board
+     *
+     * @param board The board to evaluate
+     * @return The largest value over all pattern databases, 0 if there are none
+     */
+    @Override
+    public int calculate(Board board)
+    {
+        int best = 0;
+        for (PatternDatabase database : databases)
+            best = Math.max(best, database.calculate(board));
+
+        return best;
+    }
+
+    @Override
+    public int delta(Board board, int parentH, int move)
+    {
+        return used[Board.moveCar(move)] ? calculate(board) : parentH;
+    }
+
+    /**
+     * Build the database of the primary car and a group of cars, keeping it if it can be looked up
+     *
+     * @param board Any board of the layout
+     * @param primary Index of the primary car
+     * @param group Indices of the other cars of the pattern
+     * @param built Receives the database
+     */
+    private static void addDatabase(Board board, int primary, List<Integer> group, List<PatternDatabase> built)
+    {
+        int[] cars = new int[group.size() + 1];
+        cars[0] = primary;
+        for (int k = 0; k < group.size(); k++) cars[k + 1] = group.get(k);
+
+        PatternDatabase database = new PatternDatabase(board, cars);
+        if (database.isUsable()) built.add(database);
+    }
+
+    /**
+     * Classify every car by how directly it can stand in the way of the primary car
+     *
+     * @param board Any board of the layout
+     * @return 0 for cars whose lane crosses the primary car's lane between the car and the exit,
+     *         1 for cars whose lane crosses the lane of one of those, 2 for the others and the primary car
+     */
+    private static int[] relevance(Board board)
+    {
+        int primary = board.getPrimaryIndex();
+        int[] relevance = new int[board.getCarCount()];
+        Arrays.fill(relevance, 2);
+
+        BoardLayout layout = board.getLayout();
+        int lane = layout.getCarLane(primary);
+        int goal = layout.getGoalOffset();
+        int from = Math.min(goal, board.getCarOffset(primary));
+        int to = Math.max(goal, board.getCarOffset(primary)) + board.getCarLength(primary) - 1;
+
+        for (int c = 0; c < board.getCarCount(); c++)
+            if (c != primary && crosses(layout, c, primary, lane, from, to)) relevance[c] = 0;
+
+        for (int c = 0; c < board.getCarCount(); c++)
+        {
+            if (c == primary || relevance[c] == 0) continue;
+
+            for (int b = 0; b < board.getCarCount(); b++)
+            {
+                if (relevance[b] != 0) continue;
+                if (crosses(layout, c, b, layout.getCarLane(b), 0, layout.getLaneLength(b) - 1))
+                {
+                    relevance[c] = 1;
+                    break;
+                }
+            }
+        }
+        return relevance;
+    }
+
+    /**
+     * Check whether a car's lane crosses a stretch of another car's lane
+     *
+     * @param layout The layout of the puzzle
+     * @param car The car whose lane is checked
+     * @param other The car owning the stretch
+     * @param lane Lane of other
+     * @param from First cell of the stretch along the lane of other
+     * @param to Last cell of the stretch along the lane of other
+     * @return True if some offset of car covers a cell of the stretch
+     */
+    private static boolean crosses(BoardLayout layout, int car, int other, int lane, int from, int to)
+    {
+        // Perpendicular cars cross one cell of the lane, parallel cars in the same lane share all of it
+        if (layout.getCarOrientation(car) != layout.getCarOrientation(other))
+            return layout.getCarLane(car) >= from && layout.getCarLane(car) <= to;
+
+        return layout.getCarLane(car) == lane;
+    }
+
+    private static int radix(Board board, int car)
+    {
+        return Math.max(1, board.getLayout().getLaneLength(car) - board.getCarLength(car) + 1);
+    }
+}
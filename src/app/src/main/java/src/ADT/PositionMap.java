@@ -0,0 +1,105 @@
+package src.ADT;
+
+/**
+ * Open-addressing hash map from board positions to int values.
+ * Positions are kept in the same packed-key table as VisitedSet, with the values in a
+ * parallel array, for solvers that need to remember a number per position instead of
+ * only whether it has been seen.
+ */
+public class PositionMap
+{
+    // Constants
+    public static final int MISSING = -1; // Returned by get for positions that are not in the map
+
+    private static final int MIN_CAPACITY = 16;
+
+    // Attributes
+    private final int keyWords;   // Number of longs per packed key
+    private final long[] scratch; // Reusable buffer for the key of the board being looked up
+    private PositionTable table;  // Packed keys of the positions in the map
+    private int[] values;         // Value stored for the key in each slot of table
+
+    /**
+     * Constructor for the PositionMap class
+     *
+     * @param board Any board of the puzzle, used for the key size
+     */
+    public PositionMap(Board board)
+    {
+        this.keyWords = board.getKeyWords();
+        this.scratch  = new long[keyWords];
+        this.table    = new PositionTable(MIN_CAPACITY, keyWords);
+        this.values   = new int[MIN_CAPACITY];
+    }
+
+    public int size() { return table.count; }
+    public boolean isEmpty() { return table.count == 0; }
+
+    /**
+     * Get the value stored for a board position
+     *
+     * @param board The board to look up
+     * @return The stored value, or MISSING if the position is not in the map
+     */
+    public int get(Board board)
+    {
+        int slot = table.find(scratch, PositionTable.pack(board, scratch));
+        return table.isUsed(slot) ? values[slot] : MISSING;
+    }
+
+    /**
+     * Store a value for a board position, replacing any previous value
+     *
+     * @param board The board to store
+     * @param value The value to store
+     * @return True if the position was not in the map yet, false otherwise
+     */
+    public boolean put(Board board, int value)
+    {
+        int hash = PositionTable.pack(board, scratch);
+        int slot = table.find(scratch, hash);
+
+        if (table.isUsed(slot))
+        {
+            values[slot] = value;
+            return false;
+        }
+
+        table.store(slot, scratch, 0, hash);
+        values[slot] = value;
+
+        if (table.isFull()) grow();
+        return true;
+    }
+
+    /**
+     * Remove a board position
+     *
+     * @param board The board to remove
+     * @return True if the position was in the map, false otherwise
+     */
+    public boolean remove(Board board)
+    {
+        int slot = table.find(scratch, PositionTable.pack(board, scratch));
+        if (!table.isUsed(slot)) return false;
+
+        table.remove(slot, values);
+        return true;
+    }
+
+    /**
+     * Rehash every entry into a table of twice the size
+     */
+    private void grow()
+    {
+        PositionTable oldTable = table;
+        int[] oldValues = values;
+
+        this.table  = new PositionTable(oldTable.capacity() << 1, keyWords);
+        this.values = new int[table.capacity()];
+
+        for (int old = 0; old < oldTable.capacity(); old++)
+            if (oldTable.isUsed(old))
+                values[table.insert(oldTable.keys, old * keyWords, oldTable.hashes[old])] = oldValues[old];
+    }
+}
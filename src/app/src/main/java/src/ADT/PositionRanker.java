@@ -0,0 +1,122 @@
+package src.ADT;
+
+/**
+ * Perfect ranking of the positions of a puzzle layout into dense integer indices.
+ * Each car can only take (lane length - car length + 1) offsets, so a position is a
+ * number in a mixed radix with one digit per car. Every position has a distinct rank
+ * below getRankCount, and tables indexed by rank need no keys and no hashing.
+ *
+ * Ranks of overlapping car placements are never produced by a real board; unrank
+ * rejects them as soon as two cars share a cell.
+ */
+public class PositionRanker
+{
+    // Constants
+    public static final long TOO_MANY = Long.MAX_VALUE; // Rank count of layouts whose ranks do not fit in a long
+
+    // Attributes
+    private final int[] radixes;      // Number of offsets of each car
+    private final long[] weights;     // Rank weight of one offset step of each car
+    private final long rankCount;     // Number of ranks, TOO_MANY if they do not fit in a long
+    private final int cellWords;      // Number of longs in an occupancy mask of the grid
+    private final long[][] cellMasks; // Cells covered by each car at each offset, cellWords longs per offset
+
+    /**
+     * Constructor for the PositionRanker class
+     *
+     * @param board Any board of the layout
+     */
+    public PositionRanker(Board board)
+    {
+        BoardLayout layout = board.getLayout();
+        int count = layout.getCarCount();
+        int cols = layout.getCols();
+
+        this.radixes   = new int[count];
+        this.weights   = new long[count];
+        this.cellWords = (layout.getRows() * cols + 63) >>> 6;
+        this.cellMasks = new long[count][];
+
+        long weight = 1;
+        for (int c = 0; c < count; c++)
+        {
+            radixes[c] = Math.max(1, layout.getLaneLength(c) - layout.getCarLength(c) + 1);
+            weights[c] = weight;
+            weight = (weight == TOO_MANY || weight > TOO_MANY / radixes[c]) ? TOO_MANY : weight * radixes[c];
+
+            // One mask per offset makes the overlap test a few word ANDs
+            cellMasks[c] = new long[radixes[c] * cellWords];
+            for (int offset = 0; offset < radixes[c]; offset++)
+            {
+                for (int k = 0; k < layout.getCarLength(c); k++)
+                {
+                    int along = offset + k;
+                    int cell = (layout.getCarOrientation(c) == Board.HORIZONTAL)
+                        ? layout.getCarLane(c) * cols + along
+                        : along * cols + layout.getCarLane(c);
+                    cellMasks[c][offset * cellWords + (cell >>> 6)] |= 1L << (cell & 63);
+                }
+            }
+        }
+        this.rankCount = weight;
+    }
+
+    public long getRankCount() { return this.rankCount; }
+    public int getCarCount() { return this.radixes.length; }
+    public long getWeight(int carIndex) { return this.weights[carIndex]; }
+
+    /**
+     * Check whether every rank of the layout fits below a limit
+     *
+     * @param limit Largest number of ranks accepted
+     * @return True if the layout has at most limit ranks
+     */
+    public boolean fitsIn(long limit)
+    {
+        return rankCount != TOO_MANY && rankCount <= limit;
+    }
+
+    /**
+     * Get the rank of a board position, the layout must fit in a long
+     *
+     * @param board The board to rank
+     * @return Its rank, between 0 and getRankCount - 1
+     */
+    public long rank(Board board)
+    {
+        long rank = 0;
+        for (int c = 0; c < weights.length; c++)
+            rank += board.getCarOffset(c) * weights[c];
+
+        return rank;
+    }
+
+    /**
+     * Decode a rank into car offsets
+     *
+     * @param rank The rank to decode
+     * @param positions Receives the offset of each car, as for Board.setPositions
+     * @return True if the cars do not overlap, false if the rank is not a legal position
+     */
+    public boolean unrank(long rank, byte[] positions)
+    {
+        long[] occupied = new long[cellWords];
+
+        for (int c = 0; c < radixes.length; c++)
+        {
+            int offset = (int) (rank % radixes[c]);
+            rank /= radixes[c];
+
+            long[] masks = cellMasks[c];
+            int base = offset * cellWords;
+            for (int w = 0; w < cellWords; w++)
+            {
+                if ((occupied[w] & masks[base + w]) != 0) return false;
+                occupied[w] |= masks[base + w];
+            }
+            positions[c] = (byte) offset;
+        }
+
+        return true;
+    }
+}
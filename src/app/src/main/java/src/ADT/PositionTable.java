@@ -0,0 +1,135 @@
+package src.ADT;
+
+/**
+ * Single open-addressing table of packed board positions with linear probing,
+ * shared by VisitedSet and PositionMap.
+ * Keys are the car offsets from Board.packPositions, keyWords longs per slot, and a
+ * stored hash of 0 marks an empty slot. Callers keep any per-slot payload in their
+ * own arrays, indexed by the slots this table returns.
+ */
+final class PositionTable
+{
+    // Attributes
+    final int keyWords; // Number of longs per packed key
+    final long[] keys;  // Packed keys, keyWords longs per slot
+    final int[] hashes; // Hash of the key in each slot, never 0 for used slots
+    final int mask;     // Capacity - 1, capacity is a power of two
+    int count;          // Number of used slots
+
+    /**
+     * Constructor for the PositionTable class
+     *
+     * @param capacity Number of slots, a power of two
+     * @param keyWords Number of longs per packed key
+     */
+    PositionTable(int capacity, int keyWords)
+    {
+        this.keyWords = keyWords;
+        this.keys     = new long[capacity * keyWords];
+        this.hashes   = new int[capacity];
+        this.mask     = capacity - 1;
+        this.count    = 0;
+    }
+
+    int capacity() { return this.mask + 1; }
+    boolean isFull() { return count >= capacity() - (capacity() >>> 2); }
+    boolean isUsed(int slot) { return hashes[slot] != 0; }
+
+    /**
+     * Pack a board position into a key
+     *
+     * @param board The board to pack
+     * @param key Destination array, receives board.getKeyWords() longs
+     * @return The table hash of the position
+     */
+    static int pack(Board board, long[] key)
+    {
+        board.packPositions(key, 0);
+
+        // Fold the 64-bit Zobrist hash into a non-zero table hash
+        long zobristHash = board.getZobristHash();
+        int hash = (int) (zobristHash ^ (zobristHash >>> 32));
+        return (hash == 0) ? 1 : hash;
+    }
+
+    /**
+     * Find the slot holding a key, or the empty slot that ends its probe sequence
+     *
+     * @param key The packed key
+     * @param hash The hash of the key
+     * @return Slot index
+     */
+    int find(long[] key, int hash)
+    {
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask)
+        {
+            int stored = hashes[slot];
+            if (stored == 0 || (stored == hash && sameKey(slot * keyWords, key))) return slot;
+        }
+    }
+
+    /**
+     * Store a key in the first free slot of its probe sequence, the key must not be present yet
+     *
+     * @param src Array holding the packed key
+     * @param from Index of the key in src
+     * @param hash The hash of the key
+     * @return Slot the key was stored in
+     */
+    int insert(long[] src, int from, int hash)
+    {
+        int slot = hash & mask;
+        while (hashes[slot] != 0) slot = (slot + 1) & mask;
+
+        store(slot, src, from, hash);
+        return slot;
+    }
+
+    /**
+     * Store a key in an empty slot found by find
+     *
+     * @param slot The empty slot
+     * @param src Array holding the packed key
+     * @param from Index of the key in src
+     * @param hash The hash of the key
+     */
+    void store(int slot, long[] src, int from, int hash)
+    {
+        hashes[slot] = hash;
+        System.arraycopy(src, from, keys, slot * keyWords, keyWords);
+        count++;
+    }
+
+    /**
+     * Empty a used slot, shifting later entries of its probe sequence back so that no lookup stops early
+     *
+     * @param slot The slot to empty
+     * @param values Payload array moved along with the keys, or null
+     */
+    void remove(int slot, int[] values)
+    {
+        int hole = slot;
+        for (int next = (hole + 1) & mask; hashes[next] != 0; next = (next + 1) & mask)
+        {
+            int home = hashes[next] & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask))
+            {
+                hashes[hole] = hashes[next];
+                if (values != null) values[hole] = values[next];
+                System.arraycopy(keys, next * keyWords, keys, hole * keyWords, keyWords);
+                hole = next;
+            }
+        }
+
+        hashes[hole] = 0;
+        count--;
+    }
+
+    private boolean sameKey(int from, long[] key)
+    {
+        for (int w = 0; w < keyWords; w++)
+            if (keys[from + w] != key[w]) return false;
+
+        return true;
+    }
+}
@@ -0,0 +1,58 @@
+package src.ADT;
+
+/**
+ * Set of position ranks stored as one bit per rank, for layouts whose ranks are dense
+ * enough to allocate a bit for every one of them. See PositionRanker.
+ */
+public class RankBitSet
+{
+    // Constants
+    public static final long MAX_BITS = (long) (Integer.MAX_VALUE - 8) << 6; // Largest number of ranks a set can hold
+
+    // Attributes
+    private final long[] words; // Bit r of the set is bit (r & 63) of words[r >>> 6]
+    private int size;           // Number of ranks in the set
+
+    /**
+     * Constructor for the RankBitSet class
+     *
+     * @param bits Number of ranks, every rank added must be below it
+     */
+    public RankBitSet(long bits)
+    {
+        if (bits < 0 || bits > MAX_BITS) throw new IllegalArgumentException("Invalid bit count: " + bits);
+        this.words = new long[(int) ((bits + 63) >>> 6)];
+        this.size  = 0;
+    }
+
+    public int size() { return this.size; }
+    public boolean isEmpty() { return this.size == 0; }
+
+    /**
+     * Check if a rank is in the set
+     *
+     * @param rank The rank to look up
+     * @return True if the rank has been added before, false otherwise
+     */
+    public boolean contains(long rank)
+    {
+        return (words[(int) (rank >>> 6)] & (1L << rank)) != 0;
+    }
+
+    /**
+     * Add a rank to the set
+     *
+     * @param rank The rank to add
+     * @return True if the rank was not in the set yet, false otherwise
+     */
+    public boolean add(long rank)
+    {
+        int w = (int) (rank >>> 6);
+        long bit = 1L << rank;
+        if ((words[w] & bit) != 0) return false;
+
+        words[w] |= bit;
+        size++;
+        return true;
+    }
+}
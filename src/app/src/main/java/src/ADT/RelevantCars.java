@@ -0,0 +1,324 @@
+package src.ADT;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Static analysis of which cars can ever matter to the primary car.
+ *
+ * A car boxed in on both sides by the board edge or by cars that cannot move either
+ * never moves, and stands like a wall. Any other car can at most sweep the cells of its
+ * lane between the nearest walls, which is its span. The primary car is relevant, and
+ * so is every car whose span meets the span of a relevant car. Walls are relevant when
+ * they end the span of a relevant car or hold a relevant wall in place, and are kept on
+ * the board without ever moving.
+ *
+ * The remaining cars never stand on a cell a relevant car could use, nor stop one: they
+ * never block a relevant car and never have to make way for one. Leaving them out gives
+ * a reduced board with the same solutions, of the same lengths, as the full one.
+ */
+public class RelevantCars
+{
+    // Attributes
+    private final Board reduced;  // Board with the relevant cars only, the board itself if every car is relevant
+    private final int[] original; // Index on the full board of each car of the reduced board
+    private final int dropped;    // Number of cars left out
+
+    /**
+     * Constructor for the RelevantCars class, runs the analysis
+     *
+     * @param board The loaded board
+     */
+    public RelevantCars(Board board)
+    {
+        int count = board.getCarCount();
+        boolean[] relevant = (board.getPrimaryIndex() == Board.UNKNOWN) ? null : findRelevant(board);
+
+        int kept = 0;
+        for (int c = 0; c < count; c++)
+            if (relevant == null || relevant[c]) kept++;
+
+        this.original = new int[kept];
+        for (int c = 0, r = 0; c < count; c++)
+            if (relevant == null || relevant[c]) original[r++] = c;
+
+        this.dropped = count - kept;
+        this.reduced = (dropped == 0) ? board : reduce(board, original);
+    }
+
+    public Board getReducedBoard() { return this.reduced; }
+    public int getDroppedCount() { return this.dropped; }
+
+    /**
+     * Map a solution of the reduced board to the car indices of the full board
+     *
+     * @param moves Moves as [carIndex, moveAmount] on the reduced board
+     * @return The same moves as [carIndex, moveAmount] on the full board
+     */
+    public List<int[]> restoreMoves(List<int[]> moves)
+    {
+        List<int[]> restored = new ArrayList<>(moves.size());
+        for (int[] move : moves)
+            restored.add(new int[]{original[move[0]], move[1]});
+
+        return restored;
+    }
+
+    /**
+     * Fixed cars and spans of every car of a board
+     */
+    private static final class Spans
+    {
+        final int[] owner;     // Car covering each cell, row-major, Board.UNKNOWN if empty
+        final boolean[] fixed; // Whether each car can never move
+        final int[] lo;        // First cell of each car's lane it can ever cover
+        final int[] hi;        // Last cell of each car's lane it can ever cover
+
+        Spans(Board board)
+        {
+            BoardLayout layout = board.getLayout();
+            int count = board.getCarCount();
+
+            this.owner = new int[layout.getRows() * layout.getCols()];
+            Arrays.fill(owner, Board.UNKNOWN);
+            for (int c = 0; c < count; c++)
+                for (int k = 0; k < layout.getCarLength(c); k++)
+                    owner[cell(layout, c, board.getCarOffset(c) + k)] = c;
+
+            // Start with every car fixed and free the ones next to an empty cell or a car already freed
+            this.fixed = new boolean[count];
+            Arrays.fill(fixed, true);
+            for (boolean changed = true; changed; )
+            {
+                changed = false;
+                for (int c = 0; c < count; c++)
+                {
+                    int first = board.getCarOffset(c);
+                    int last = first + layout.getCarLength(c) - 1;
+                    if (fixed[c] && (canEnter(layout, owner, fixed, c, first - 1) || canEnter(layout, owner, fixed, c, last + 1)))
+                    {
+                        fixed[c] = false;
+                        changed = true;
+                    }
+                }
+            }
+
+            // Span of each car, from its first to its last cell when it never moves
+            this.lo = new int[count];
+            this.hi = new int[count];
+            for (int c = 0; c < count; c++)
+            {
+                lo[c] = board.getCarOffset(c);
+                hi[c] = lo[c] + layout.getCarLength(c) - 1;
+                if (fixed[c]) continue;
+
+                while (lo[c] > 0 && !isWall(owner, fixed, cell(layout, c, lo[c] - 1))) lo[c]--;
+                while (hi[c] < layout.getLaneLength(c) - 1 && !isWall(owner, fixed, cell(layout, c, hi[c] + 1))) hi[c]++;
+            }
+        }
+    }
+
+    /**
+     * Find the cars within a number of steps of the primary car's path to the exit. A car
+     * is one step away when its span meets a cell the primary car has to cross, and k
+     * steps away when its span meets the span of a car k - 1 steps away.
+     *
+     * @param board The board to analyse
+     * @param steps Largest number of steps, 1 for the cars that can cross the path
+     * @return Whether each car is close enough, true for the primary car itself, and for
+     *         every car if the board has no primary car or exit
+     */
+    public static boolean[] findCarsNearPath(Board board, int steps)
+    {
+        BoardLayout layout = board.getLayout();
+        int count = board.getCarCount();
+        int primary = board.getPrimaryIndex();
+
+        boolean[] near = new boolean[count];
+        if (primary == Board.UNKNOWN || layout.getGoalOffset() == Board.UNKNOWN)
+        {
+            Arrays.fill(near, true);
+            return near;
+        }
+
+        // The primary car counts with the cells between its offset and the goal offset only
+        Spans spans = new Spans(board);
+        int[] pathLo = spans.lo.clone();
+        int[] pathHi = spans.hi.clone();
+        pathLo[primary] = Math.min(board.getCarOffset(primary), layout.getGoalOffset());
+        pathHi[primary] = Math.max(board.getCarOffset(primary), layout.getGoalOffset()) + layout.getCarLength(primary) - 1;
+
+        near[primary] = true;
+        List<Integer> ring = new ArrayList<>();
+        ring.add(primary);
+
+        for (int s = 0; s < steps && !ring.isEmpty(); s++)
+        {
+            List<Integer> next = new ArrayList<>();
+            for (int c = 0; c < count; c++)
+            {
+                if (near[c]) continue;
+                for (int r : ring)
+                {
+                    if (spansMeet(layout, pathLo, pathHi, spans.lo, spans.hi, r, c))
+                    {
+                        near[c] = true;
+                        next.add(c);
+                        break;
+                    }
+                }
+            }
+            ring = next;
+        }
+        return near;
+    }
+
+    /**
+     * Find the cars whose span meets the primary car's, directly or through other relevant cars
+     *
+     * @param board The board to analyse, with a primary car
+     * @return Whether each car is relevant
+     */
+    private static boolean[] findRelevant(Board board)
+    {
+        BoardLayout layout = board.getLayout();
+        int count = board.getCarCount();
+
+        Spans spans = new Spans(board);
+        int[] owner = spans.owner;
+        boolean[] fixed = spans.fixed;
+        int[] lo = spans.lo;
+        int[] hi = spans.hi;
+
+        // Span of each car with the wall cells that end it
+        int[] stopLo = new int[count];
+        int[] stopHi = new int[count];
+        for (int c = 0; c < count; c++)
+        {
+            stopLo[c] = (fixed[c] || lo[c] == 0) ? lo[c] : lo[c] - 1;
+            stopHi[c] = (fixed[c] || hi[c] == layout.getLaneLength(c) - 1) ? hi[c] : hi[c] + 1;
+        }
+
+        boolean[] relevant = new boolean[count];
+        Deque<Integer> pending = new ArrayDeque<>();
+        relevant[board.getPrimaryIndex()] = true;
+        pending.push(board.getPrimaryIndex());
+
+        while (!pending.isEmpty())
+        {
+            // A wall only needs the walls that hold it in place
+            int r = pending.pop();
+            if (fixed[r])
+            {
+                int first = board.getCarOffset(r);
+                int last = first + layout.getCarLength(r) - 1;
+                if (first > 0) keep(owner, relevant, pending, cell(layout, r, first - 1));
+                if (last < layout.getLaneLength(r) - 1) keep(owner, relevant, pending, cell(layout, r, last + 1));
+                continue;
+            }
+
+            for (int c = 0; c < count; c++)
+            {
+                if (relevant[c]) continue;
+
+                // A wall matters when it ends the span, any other car when it shares a cell of it
+                boolean meets = fixed[c] ? spansMeet(layout, stopLo, stopHi, lo, hi, r, c)
+                                         : spansMeet(layout, lo, hi, lo, hi, r, c);
+                if (meets)
+                {
+                    relevant[c] = true;
+                    pending.push(c);
+                }
+            }
+        }
+        return relevant;
+    }
+
+    private static void keep(int[] owner, boolean[] relevant, Deque<Integer> pending, int cell)
+    {
+        if (relevant[owner[cell]]) return;
+        relevant[owner[cell]] = true;
+        pending.push(owner[cell]);
+    }
+
+    /**
+     * Check whether a car could step onto a cell of its lane
+     *
+     * @return True if the cell is on the board and empty or held by a car that is not fixed
+     */
+    private static boolean canEnter(BoardLayout layout, int[] owner, boolean[] fixed, int car, int along)
+    {
+        if (along < 0 || along >= layout.getLaneLength(car)) return false;
+        return !isWall(owner, fixed, cell(layout, car, along));
+    }
+
+    private static boolean isWall(int[] owner, boolean[] fixed, int cell)
+    {
+        return owner[cell] != Board.UNKNOWN && fixed[owner[cell]];
+    }
+
+    /**
+     * Check whether the cells of two cars' lanes between given bounds share a cell
+     *
+     * @param loA First cell of each car's lane to check for car a
+     * @param hiA Last cell of each car's lane to check for car a
+     * @param loB First cell of each car's lane to check for car b
+     * @param hiB Last cell of each car's lane to check for car b
+     * @return True if the two runs of cells overlap
+     */
+    private static boolean spansMeet(BoardLayout layout, int[] loA, int[] hiA, int[] loB, int[] hiB, int a, int b)
+    {
+        int laneA = layout.getCarLane(a);
+        int laneB = layout.getCarLane(b);
+
+        if (layout.getCarOrientation(a) == layout.getCarOrientation(b))
+            return laneA == laneB && loA[a] <= hiB[b] && loB[b] <= hiA[a];
+
+        // Crossing lanes meet in a single cell
+        return loA[a] <= laneB && laneB <= hiA[a] && loB[b] <= laneA && laneA <= hiB[b];
+    }
+
+    /**
+     * Get the row-major index of a cell of a car's lane
+     *
+     * @param along Offset of the cell along the lane
+     */
+    private static int cell(BoardLayout layout, int car, int along)
+    {
+        int lane = layout.getCarLane(car);
+        return (layout.getCarOrientation(car) == Board.HORIZONTAL) ? lane * layout.getCols() + along : along * layout.getCols() + lane;
+    }
+
+    /**
+     * Build the board with only the kept cars, at their current offsets
+     *
+     * @param board The full board
+     * @param kept Index on the full board of each kept car, in order
+     * @return The reduced board
+     */
+    private static Board reduce(Board board, int[] kept)
+    {
+        BoardLayout layout = board.getLayout();
+        List<Car> cars = new ArrayList<>(kept.length);
+        byte[] positions = new byte[kept.length];
+
+        for (int r = 0; r < kept.length; r++)
+        {
+            cars.add(board.getCars().get(kept[r]));
+            positions[r] = (byte) board.getCarOffset(kept[r]);
+        }
+
+        BoardLayout reducedLayout = new BoardLayout(layout.getRows(),
+                                                    layout.getCols(),
+                                                    kept.length - 1,
+                                                    layout.getExitRow(),
+                                                    layout.getExitCol(),
+                                                    layout.getExitSide(),
+                                                    layout.getPalette(),
+                                                    cars);
+        return new Board(reducedLayout, positions);
+    }
+}
@@ -0,0 +1,79 @@
+package src.ADT;
+
+/**
+ * Precomputed sliding ranges for every occupancy pattern of a lane of a given length.
+ * For a lane occupancy mask and a cell, the table stores how many free cells lie
+ * directly below and above that cell, so the legal moves of a car follow from one
+ * mask extraction and two array lookups.
+ *
+ * Tables are immutable and built at most once per lane length, so they are shared by
+ * every layout and every solver thread.
+ */
+public final class SlideTable
+{
+    // Constants
+    public static final int MAX_LANE_LENGTH = 12; // Longest lane with a table, 2^12 masks per table
+
+    private static final SlideTable[] TABLES = new SlideTable[MAX_LANE_LENGTH + 1];
+
+    // Attributes
+    private final int length;      // Number of cells in the lane
+    private final byte[] freeBelow; // Free cells directly below each cell, indexed by mask * length + cell
+    private final byte[] freeAbove; // Free cells directly above each cell, indexed by mask * length + cell
+
+    /**
+     * Constructor for the SlideTable class
+     *
+     * @param length Number of cells in the lane
+     */
+    private SlideTable(int length)
+    {
+        this.length    = length;
+        this.freeBelow = new byte[(1 << length) * length];
+        this.freeAbove = new byte[(1 << length) * length];
+
+        for (int mask = 0; mask < (1 << length); mask++)
+        {
+            int base = mask * length;
+
+            // Runs of free cells grow by one per free neighbour and reset at every occupied one
+            for (int cell = 1; cell < length; cell++)
+                freeBelow[base + cell] = ((mask >>> (cell - 1)) & 1) != 0 ? 0 : (byte) (freeBelow[base + cell - 1] + 1);
+
+            for (int cell = length - 2; cell >= 0; cell--)
+                freeAbove[base + cell] = ((mask >>> (cell + 1)) & 1) != 0 ? 0 : (byte) (freeAbove[base + cell + 1] + 1);
+        }
+    }
+
+    /**
+     * Get the table for a lane length, building it on first use
+     *
+     * @param length Number of cells in the lane
+     * @return The shared table, or null if the lane is longer than MAX_LANE_LENGTH
+     */
+    public static synchronized SlideTable forLength(int length)
+    {
+        if (length < 0 || length > MAX_LANE_LENGTH) return null;
+
+        if (TABLES[length] == null) TABLES[length] = new SlideTable(length);
+        return TABLES[length];
+    }
+
+    /**
+     * Number of free cells a car whose first cell is at cell can slide towards the lane start
+     *
+     * @param laneMask Occupancy of the lane, bit i set if cell i is occupied
+     * @param cell First cell of the car
+     * @return Number of consecutive free cells directly below cell
+     */
+    public int freeBelow(long laneMask, int cell) { return freeBelow[(int) laneMask * length + cell]; }
+
+    /**
+     * Number of free cells a car whose last cell is at cell can slide towards the lane end
+     *
+     * @param laneMask Occupancy of the lane, bit i set if cell i is occupied
+     * @param cell Last cell of the car
+     * @return Number of consecutive free cells directly above cell
+     */
+    public int freeAbove(long laneMask, int cell) { return freeAbove[(int) laneMask * length + cell]; }
+}
@@ -1,75 +1,85 @@
 package src.ADT;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
-import java.util.Set;
 
 public class State implements Comparable<State> 
 {
     public static final int INVALID = 69420;
-    private Board board;
-    private List<int[]> moves; // History of moves: [carIndex, moveAmount, pieceId]
+    private byte[] positions;  // Offset of each car along its lane, see Board.getPositions
+    private State parent;      // State this one was generated from, null for the initial state
+    private int lastMove;      // Packed move that led here from parent, MovePruning.NO_MOVE for the initial state
     private int gValue;        // Cost so far: for UCS and A*
     private int hValue;        // Heuristic value: for A* and Greedy
     private int fValue;        // For A*: f(n) = g(n) + h(n)
     
     /** 
-     * Constructor for UCS
+     * Constructor for the initial state of UCS
      * 
-     * @param board The current board state
-     * @param moves The list of moves made to reach this state
+     * @param positions The car offsets of the initial board
      */
-    public State(Board board, List<int[]> moves) 
+    public State(byte[] positions) 
     {
-        this.board = board;
-        this.moves = new ArrayList<>(moves);
-        calculateGValue();
+        this(positions, 0);
     }
 
     /** 
-     * Constructor for Greedy and A*
+     * Constructor for the initial state of Greedy and A*
      * 
-     * @param board The current board state
-     * @param moves The list of moves made to reach this state
+     * @param positions The car offsets of the initial board
      * @param hValue The heuristic value for this state
      */
-    public State(Board board, List<int[]> moves, int hValue) 
+    public State(byte[] positions, int hValue) 
     { 
-        this.board = board;
-        this.moves = new ArrayList<>(moves);
-        calculateGValue();
+        this.positions = positions;
+        this.parent = null;
+        this.lastMove = MovePruning.NO_MOVE;
+        this.gValue = 0;
+        this.hValue = hValue;
+        calculateFValue();
+    }
+
+    /** 
+     * Constructor for a successor state, only the last move is stored
+     * 
+     * @param parent The state the move was made from
+     * @param lastMove The packed move made from parent
+     * @param positions The car offsets after the move
+     * @param hValue The heuristic value for this state
+     */
+    private State(State parent, int lastMove, byte[] positions, int hValue) 
+    { 
+        this.positions = positions;
+        this.parent = parent;
+        this.lastMove = lastMove;
+        this.gValue = parent.gValue + 1;
         this.hValue = hValue;
         calculateFValue();
     }
     
-    public Board getBoard() { return board; }
-    public List<int[]> getMoves() { return moves; }
+    public byte[] getPositions() { return positions; }
+    public State getParent() { return parent; }
+    public int getLastMove() { return lastMove; }
     public int getGValue() { return gValue; }
     public int getHValue() { return hValue; }
     public int getFValue() { return fValue; }
 
     /** 
-     * Convert state to String for visitedStates
+     * Rebuild the moves made to reach this state by following the parents
      * 
-     * @param board The current board state
-     * @return A string representation of the board state
+     * @return The list of moves as [carIndex, moveAmount], from the initial state
      */
-    public static String getBoardStateString(Board board) 
+    public List<int[]> getMoves() 
     {
-        StringBuilder sb = new StringBuilder();
-        for (Car car : board.getCars()) 
-        {
-            sb.append(car.getId()).append(car.getStartRow()).append(car.getStartCol());
-        }
-        return sb.toString();
-    }
+        int[][] moves = new int[gValue][];
+        
+        State cur = this;
+        for (int i = gValue - 1; i >= 0; i--, cur = cur.parent)
+            moves[i] = new int[]{Board.moveCar(cur.lastMove), Board.moveAmount(cur.lastMove)};
 
-    /** 
-     * Calculate the g(n) value for UCS
-     */
-    public void calculateGValue() { this.gValue = this.moves.size(); }
+        return new ArrayList<>(Arrays.asList(moves));
+    }
 
     /** 
      * Calculate the f(n) = g(n) + h(n) value for A*
@@ -84,90 +94,69 @@ public class State implements Comparable<State>
      */
     public static int calculateBlockingCarHeuristic(Board board) 
     {
-        Car primaryCar = board.getPrimaryCar();
+        int primary = board.getPrimaryIndex();
         
-        if (primaryCar == null) return INVALID;
+        if (primary == Board.UNKNOWN) return INVALID;
         
         int exitRow = board.getExitRow();
         int exitCol = board.getExitCol();
+        int startRow = board.getCarRow(primary);
+        int startCol = board.getCarCol(primary);
+        int length = board.getCarLength(primary);
         
         int blockingCars = 0;
         
-        if (primaryCar.getOrientation() == 1) 
+        if (board.getCarOrientation(primary) == Board.HORIZONTAL) 
         {
-            int leftEdge = primaryCar.getStartCol();
-            int rightEdge = primaryCar.getStartCol() + primaryCar.getLength() - 1;
+            int leftEdge = startCol;
+            int rightEdge = startCol + length - 1;
             
             if (exitCol == board.getCols()) 
-            {   
-                Set<Character> blockingPieceIds = new HashSet<>();
-                for (int col = rightEdge + 1; col < exitCol; col++) 
-                {
-                    if (col >= 0 && 
-                        col < board.getCols() && 
-                        primaryCar.getStartRow() >= 0 && 
-                        primaryCar.getStartRow() < board.getRows()) 
-                    {
-                        char cell = board.getGrid()[primaryCar.getStartRow()][col];
-                        if (cell != '.') blockingPieceIds.add(cell);
-                    }
-                }
-                blockingCars = blockingPieceIds.size();
-            } 
+                blockingCars = countCarsOnLine(board, startRow, rightEdge + 1, 0, 1, exitCol - rightEdge - 1);
+
             else if (exitCol == 0) 
-            {   
-                Set<Character> blockingPieceIds = new HashSet<>();
-                for (int col = leftEdge - 1; col > exitCol; col--) 
-                {
-                    if (col >= 0 && 
-                        col < board.getCols() && 
-                        primaryCar.getStartRow() >= 0 && 
-                        primaryCar.getStartRow() < board.getRows()) 
-                    {
-                        char cell = board.getGrid()[primaryCar.getStartRow()][col];
-                        if (cell != '.') blockingPieceIds.add(cell);
-                    }
-                }
-                blockingCars = blockingPieceIds.size();
-            }
+                blockingCars = countCarsOnLine(board, startRow, leftEdge - 1, 0, -1, leftEdge - 1 - exitCol);
         } 
         else 
         {
-            int topEdge = primaryCar.getStartRow();
-            int bottomEdge = primaryCar.getStartRow() + primaryCar.getLength() - 1;
+            int topEdge = startRow;
+            int bottomEdge = startRow + length - 1;
             
             if (exitRow == board.getRows()) 
-            {   
-                Set<Character> blockingPieceIds = new HashSet<>();
-                for (int row = bottomEdge + 1; row < exitRow; row++) 
-                {
-                    if (row >= 0 && row < board.getRows() && 
-                        primaryCar.getStartCol() >= 0 && 
-                        primaryCar.getStartCol() < board.getCols()) {
-                        char cell = board.getGrid()[row][primaryCar.getStartCol()];
-                        if (cell != '.') blockingPieceIds.add(cell);
-                    }
-                }
-                blockingCars = blockingPieceIds.size();
-            } 
+                blockingCars = countCarsOnLine(board, bottomEdge + 1, startCol, 1, 0, exitRow - bottomEdge - 1);
+
             else if (exitRow == 0) 
-            {   
-                Set<Character> blockingPieceIds = new HashSet<>();
-                for (int row = topEdge - 1; row > exitRow; row--) 
-                {
-                    if (row >= 0 && row < board.getRows() && 
-                        primaryCar.getStartCol() >= 0 && 
-                        primaryCar.getStartCol() < board.getCols()) {
-                        char cell = board.getGrid()[row][primaryCar.getStartCol()];
-                        if (cell != '.') blockingPieceIds.add(cell);
-                    }
-                }
-                blockingCars = blockingPieceIds.size();
-            }
+                blockingCars = countCarsOnLine(board, topEdge - 1, startCol, -1, 0, topEdge - 1 - exitRow);
         }
         
         return blockingCars;
     }
+
+    /**
+     * Count the distinct cars on a straight run of cells
+     * 
+     * @param board The current board state
+     * @param row Row of the first cell
+     * @param col Column of the first cell
+     * @param dRow Row step between cells
+     * @param dCol Column step between cells
+     * @param steps Number of cells to check
+     * @return The number of distinct cars covering the cells
+     */
+    private static int countCarsOnLine(Board board, int row, int col, int dRow, int dCol, int steps) 
+    {
+        int count = 0;
+        int lastCar = Board.UNKNOWN;
+        
+        // A car crosses a straight line in one contiguous run, so each new run is a new car
+        for (int k = 0; k < steps; k++, row += dRow, col += dCol) 
+        {
+            int car = board.getCarAt(row, col);
+            if (car != Board.UNKNOWN && car != lastCar) count++;
+            lastCar = car;
+        }
+        return count;
+    }
     
     /**
      * Calculate the heuristic value for the Manhattan distance heuristic
@@ -177,17 +166,20 @@ public class State implements Comparable<State>
      */
     public static int calculateManhattanDistanceHeuristic(Board board) 
     {
-        Car primaryCar = board.getPrimaryCar();
+        int primary = board.getPrimaryIndex();
         
-        if (primaryCar == null) return INVALID;
+        if (primary == Board.UNKNOWN) return INVALID;
         
         int exitRow = board.getExitRow();
         int exitCol = board.getExitCol();
+        int startRow = board.getCarRow(primary);
+        int startCol = board.getCarCol(primary);
+        int length = board.getCarLength(primary);
         
-        if (primaryCar.getOrientation() == 1) 
+        if (board.getCarOrientation(primary) == Board.HORIZONTAL) 
         {
-            int leftEdge = primaryCar.getStartCol();
-            int rightEdge = primaryCar.getStartCol() + primaryCar.getLength() - 1;
+            int leftEdge = startCol;
+            int rightEdge = startCol + length - 1;
             
             if (exitCol == board.getCols()) 
                 return Math.max(0, exitCol - rightEdge - 1);
@@ -197,8 +189,8 @@ public class State implements Comparable<State>
         } 
         else 
         {
-            int topEdge = primaryCar.getStartRow();
-            int bottomEdge = primaryCar.getStartRow() + primaryCar.getLength() - 1;
+            int topEdge = startRow;
+            int bottomEdge = startRow + length - 1;
             
             if (exitRow == board.getRows())
                 return Math.max(0, exitRow - bottomEdge - 1);
@@ -214,7 +206,7 @@ public class State implements Comparable<State>
     public int compareTo(State other) { return Integer.compare(this.fValue, other.fValue); }
     
     @Override
-    public int hashCode() { return Objects.hash(board); }
+    public int hashCode() { return Arrays.hashCode(positions); }
 
     @Override
     public boolean equals(Object o) 
@@ -226,40 +218,39 @@ public class State implements Comparable<State>
             return false;
 
         State state = (State) o;
-        return Objects.equals(board, state.board);
+        return Arrays.equals(positions, state.positions);
     }
     
     /**
-     * Add a move to the history
+     * Create the successor state reached by a move
      * 
      * @param carIndex The index of the car moved
      * @param moveAmount The amount moved (positive or negative)
-     * @param newBoard The new board state after the move
+     * @param newPositions The car offsets after the move
      * @param newHValue The heuristic value for the new state
-     * @return A new State object with the updated board and moves
+     * @return A new State object pointing back to this one
      */
-    public State addMove(int carIndex, int moveAmount, Board newBoard, int newHValue) 
+    public State addMove(int carIndex, int moveAmount, byte[] newPositions, int newHValue) 
     {
-        List<int[]> newMoves = new ArrayList<>(moves);
-        char carId = board.getCars().get(carIndex).getId();
-        newMoves.add(new int[]{carIndex, moveAmount, (int)carId});
-        return new State(newBoard, newMoves, newHValue);
+        return new State(this, Board.packMove(carIndex, moveAmount), newPositions, newHValue);
     }
         
     /** 
      * Get a string representation of the moves made
      * 
+     * @param layout The layout of the puzzle, for the car identifiers
      * @return A string describing the moves made
      */
-    public String getMovesAsString() 
+    public String getMovesAsString(BoardLayout layout) 
     {
+        List<int[]> moves = getMoves();
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < moves.size(); i++) 
         {
             int[] move = moves.get(i);
             int carIndex = move[0];
             int moveAmount = move[1];
-            char pieceId = (char)move[2];
+            char pieceId = layout.getCarId(carIndex);
             
             String direction = "";
             if (moveAmount > 0) 
@@ -286,31 +277,31 @@ public class State implements Comparable<State>
     /** 
      * Get the last moved piece ID
      * 
+     * @param layout The layout of the puzzle, for the car identifiers
      * @return The ID of the last moved piece, or '\0' if no moves were made
      */
-    public char getLastMovedPieceId() 
+    public char getLastMovedPieceId(BoardLayout layout) 
     {
-        if (moves.isEmpty())
+        if (parent == null)
             return '\0'; 
 
-        int[] lastMove = moves.get(moves.size() - 1);
-        return (char)lastMove[2];
+        return layout.getCarId(Board.moveCar(lastMove));
     }
     
     /** 
      * Get the last move description
      * 
+     * @param layout The layout of the puzzle, for the car identifiers
      * @return A string describing the last move made
      */
-    public String getLastMoveDescription() 
+    public String getLastMoveDescription(BoardLayout layout) 
     {
-        if (moves.isEmpty()) return "No moves made";
+        if (parent == null) return "No moves made";
         
-        int[] lastMove = moves.get(moves.size() - 1);
-        int moveAmount = lastMove[1];
-        char pieceId = (char)lastMove[2];
+        int moveAmount = Board.moveAmount(lastMove);
+        char pieceId = layout.getCarId(Board.moveCar(lastMove));
         
         String direction = moveAmount > 0 ? "right/down" : "left/up";
         return "Piece '" + pieceId + "' moved " + direction + " " + Math.abs(moveAmount) + " steps";
     }
-}
\ No newline at end of file
+}
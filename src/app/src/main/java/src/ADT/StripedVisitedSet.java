@@ -0,0 +1,75 @@
+package src.ADT;
+
+/**
+ * Thread-safe set of board positions for the parallel search algorithms.
+ * Positions are spread over several VisitedSet stripes by their Zobrist hash and
+ * each stripe has its own lock, so threads adding different positions rarely wait
+ * on each other.
+ */
+public class StripedVisitedSet
+{
+    // Attributes
+    private final VisitedSet[] stripes; // Independent sets, each guarded by its own monitor
+    private final int mask;             // Number of stripes - 1, the number of stripes is a power of two
+
+    /**
+     * Constructor for the StripedVisitedSet class
+     *
+     * @param board The initial board of the search
+     * @param concurrency Number of threads expected to add positions at the same time
+     */
+    public StripedVisitedSet(Board board, int concurrency)
+    {
+        // A few stripes per thread keeps two threads on the same lock unlikely
+        int count = Integer.highestOneBit(Math.max(1, concurrency) * 4 - 1) << 1;
+        long expected = VisitedSet.estimatePositions(board) / count;
+
+        this.stripes = new VisitedSet[count];
+        this.mask    = count - 1;
+        for (int s = 0; s < count; s++) stripes[s] = new VisitedSet(board, expected);
+    }
+
+    /**
+     * Number of positions in the set, only exact while no thread is adding
+     *
+     * @return Sum of the stripe sizes
+     */
+    public int size()
+    {
+        int size = 0;
+        for (VisitedSet stripe : stripes)
+            synchronized (stripe) { size += stripe.size(); }
+
+        return size;
+    }
+
+    /**
+     * Check if a board position is in the set
+     *
+     * @param board The board to look up
+     * @return True if the position has been added before, false otherwise
+     */
+    public boolean contains(Board board)
+    {
+        VisitedSet stripe = stripeOf(board);
+        synchronized (stripe) { return stripe.contains(board); }
+    }
+
+    /**
+     * Add a board position to the set
+     *
+     * @param board The board to add
+     * @return True if this call added the position, false if it was already in the set
+     */
+    public boolean add(Board board)
+    {
+        VisitedSet stripe = stripeOf(board);
+        synchronized (stripe) { return stripe.add(board); }
+    }
+
+    private VisitedSet stripeOf(Board board)
+    {
+        // High bits only, the stripes index their slots with the low ones
+        return stripes[(int) (board.getZobristHash() >>> 40) & mask];
+    }
+}
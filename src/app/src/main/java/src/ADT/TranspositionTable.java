@@ -0,0 +1,175 @@
+package src.ADT;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size, lossy transposition table for the iterative-deepening solvers.
+ * Positions are keyed by their 64-bit Zobrist hash only, so a collision may rarely
+ * mix up two positions. Each entry keeps the smallest g the position was reached with
+ * and the f value its subtree last failed with, so a search can skip positions it
+ * already reached more cheaply and subtrees that are known to exceed the bound.
+ *
+ * The table never grows: its size is fixed by a memory budget when it is created.
+ * Entries are grouped in buckets of two slots. The first slot keeps the entry closest
+ * to the root, whose subtree is the most expensive to search again, and the second
+ * slot always takes the newest entry that did not fit in the first.
+ */
+public class TranspositionTable
+{
+    // Constants
+    public static final int MISS = Integer.MIN_VALUE;        // Returned by probe when the position must be searched
+    public static final long DEFAULT_BUDGET = 32L << 20;     // Default memory budget in bytes
+
+    private static final int ENTRY_BYTES = 16;               // One long key and two ints per entry
+    private static final int MIN_BUCKETS = 1;
+    private static final int MAX_BUCKETS = 1 << 29;
+    private static final int EMPTY = -1;                     // Cost of an unused slot
+    private static final int IN_PROGRESS = 0;                // Failed bound of a position whose subtree is being searched
+
+    // Attributes
+    private final long[] keys;    // Zobrist hash of the position in each slot
+    private final int[] costs;    // Smallest number of moves the position was reached with, EMPTY if unused
+    private final int[] failed;   // Smallest f above the bound when the subtree was last searched, IN_PROGRESS if unknown
+    private final int mask;       // Number of buckets - 1, the number of buckets is a power of two
+    private int size;             // Number of used slots
+
+    /**
+     * Constructor for the TranspositionTable class
+     *
+     * @param memoryBytes Memory budget of the table in bytes, rounded down to a power of two entries
+     */
+    public TranspositionTable(long memoryBytes)
+    {
+        long buckets = Math.max(MIN_BUCKETS, memoryBytes / (2 * ENTRY_BYTES));
+        int capacity = Math.min(MAX_BUCKETS, Integer.highestOneBit((int) Math.min(buckets, MAX_BUCKETS)));
+
+        this.keys   = new long[capacity * 2];
+        this.costs  = new int[capacity * 2];
+        this.failed = new int[capacity * 2];
+        this.mask   = capacity - 1;
+        this.size   = 0;
+
+        Arrays.fill(costs, EMPTY);
+    }
+
+    public int size() { return this.size; }
+    public int capacity() { return this.costs.length; }
+
+    /**
+     * Check whether a position reached with g moves still has to be searched with the given bound.
+     * A position that is searched is recorded as in progress, so reaching it again deeper on the
+     * current path is pruned.
+     *
+     * @param hash Zobrist hash of the position
+     * @param g Number of moves made to reach the position
+     * @param bound Largest f value allowed in the current iteration
+     * @return MISS if the subtree must be searched, otherwise the smallest f above the bound it can produce
+     */
+    public int probe(long hash, int g, int bound)
+    {
+        int slot = find(hash);
+
+        if (slot >= 0)
+        {
+            // Reached more cheaply before, that path searches the same subtree with a larger budget
+            if (costs[slot] < g) return Integer.MAX_VALUE;
+
+            // Same cost and the last search of the subtree already failed above this bound
+            if (costs[slot] == g && failed[slot] > bound) return failed[slot];
+        }
+
+        store(hash, g, IN_PROGRESS);
+        return MISS;
+    }
+
+    /**
+     * Record the result of searching the subtree of a position
+     *
+     * @param hash Zobrist hash of the position
+     * @param g Number of moves made to reach the position
+     * @param failedBound Smallest f value above the bound found in the subtree
+     */
+    public void store(long hash, int g, int failedBound)
+    {
+        int slot = find(hash);
+
+        if (slot >= 0)
+        {
+            // Only the cheapest path to a position is kept
+            if (g > costs[slot]) return;
+
+            costs[slot]  = g;
+            failed[slot] = failedBound;
+
+            // Promote the entry when it is now shallower than the depth-preferred one
+            int deep = slot & ~1;
+            if (slot != deep && g <= costs[deep]) swap(deep, slot);
+            return;
+        }
+
+        int deep = bucket(hash);
+        if (costs[deep] == EMPTY) slot = deep;
+        else if (g <= costs[deep])
+        {
+            // The old depth-preferred entry replaces the always-replace one
+            swap(deep, deep + 1);
+            slot = deep;
+        }
+        else slot = deep + 1;
+
+        if (costs[slot] == EMPTY) size++;
+
+        keys[slot]   = hash;
+        costs[slot]  = g;
+        failed[slot] = failedBound;
+    }
+
+    /**
+     * Remove every entry, keeping the allocated memory
+     */
+    public void clear()
+    {
+        Arrays.fill(costs, EMPTY);
+        this.size = 0;
+    }
+
+    /**
+     * Find the slot holding a position
+     *
+     * @param hash Zobrist hash of the position
+     * @return Slot index, or -1 if the position is not in the table
+     */
+    private int find(long hash)
+    {
+        int deep = bucket(hash);
+
+        if (costs[deep] != EMPTY && keys[deep] == hash) return deep;
+        if (costs[deep + 1] != EMPTY && keys[deep + 1] == hash) return deep + 1;
+        return -1;
+    }
+
+    /**
+     * Get the depth-preferred slot of the bucket a position belongs to
+     *
+     * @param hash Zobrist hash of the position
+     * @return Slot index, the always-replace slot follows it
+     */
+    private int bucket(long hash)
+    {
+        return ((int) (hash ^ (hash >>> 32)) & mask) << 1;
+    }
+
+    private void swap(int a, int b)
+    {
+        long key = keys[a];
+        int cost = costs[a];
+        int bound = failed[a];
+
+        keys[a]   = keys[b];
+        costs[a]  = costs[b];
+        failed[a] = failed[b];
+        keys[b]   = key;
+        costs[b]  = cost;
+        failed[b] = bound;
+    }
+}
@@ -0,0 +1,136 @@
+package src.ADT;
+
+/**
+ * Open-addressing hash set of board positions for the search algorithms.
+ * Each position is stored as the packed car offsets from Board.packPositions,
+ * so no String or boxed entry is created per visited state.
+ *
+ * When the table fills up, a table of twice the size is allocated and the old
+ * entries are moved over a few slots at a time on later insertions, instead of
+ * rehashing everything at once.
+ */
+public class VisitedSet
+{
+    // Constants
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_INITIAL_CAPACITY = 1 << 18;
+    private static final int MIGRATE_PER_ADD = 4;
+
+    // Attributes
+    private final int keyWords;     // Number of longs per packed key
+    private final long[] scratch;   // Reusable buffer for the key of the board being looked up
+    private PositionTable table;    // Table receiving new entries
+    private PositionTable oldTable; // Table being migrated into table, null when no resize is running
+    private int migrated;           // Number of oldTable slots already migrated
+    private int size;               // Number of distinct positions in the set
+
+    /**
+     * Constructor for the VisitedSet class, pre-sized from the number of positions the board can reach
+     *
+     * @param board The initial board of the search
+     */
+    public VisitedSet(Board board)
+    {
+        this(board, estimatePositions(board));
+    }
+
+    /**
+     * Constructor for the VisitedSet class, pre-sized for a given number of positions
+     *
+     * @param board Any board of the puzzle, used for the key size
+     * @param expected Number of positions expected to be added
+     */
+    public VisitedSet(Board board, long expected)
+    {
+        this.keyWords = board.getKeyWords();
+        this.scratch  = new long[keyWords];
+
+        int capacity = MIN_CAPACITY;
+        while (capacity < MAX_INITIAL_CAPACITY && capacity - (capacity >>> 2) < expected)
+            capacity <<= 1;
+
+        this.table    = new PositionTable(capacity, keyWords);
+        this.oldTable = null;
+        this.size     = 0;
+    }
+
+    /**
+     * Estimate how many positions a board can reach, capped at the largest initial capacity
+     *
+     * @param board The initial board of the search
+     * @return Upper bound on the number of reachable positions, or a number at least the cap
+     */
+    public static long estimatePositions(Board board)
+    {
+        // Every car can take (lane length - car length + 1) offsets, overlaps only reduce this bound
+        long estimate = 1;
+        for (int c = 0; c < board.getCarCount() && estimate < MAX_INITIAL_CAPACITY; c++)
+        {
+            int laneLength = (board.getCarOrientation(c) == Board.HORIZONTAL) ? board.getCols() : board.getRows();
+            estimate *= Math.max(1, laneLength - board.getCarLength(c) + 1);
+        }
+        return estimate;
+    }
+
+    public int size() { return this.size; }
+    public boolean isEmpty() { return this.size == 0; }
+
+    /**
+     * Check if a board position is in the set
+     *
+     * @param board The board to look up
+     * @return True if the position has been added before, false otherwise
+     */
+    public boolean contains(Board board)
+    {
+        int hash = PositionTable.pack(board, scratch);
+        return contains(table, hash) || (oldTable != null && contains(oldTable, hash));
+    }
+
+    /**
+     * Add a board position to the set
+     *
+     * @param board The board to add
+     * @return True if the position was not in the set yet, false otherwise
+     */
+    public boolean add(Board board)
+    {
+        int hash = PositionTable.pack(board, scratch);
+        if (oldTable != null && contains(oldTable, hash)) return false;
+
+        int slot = table.find(scratch, hash);
+        if (table.isUsed(slot)) return false;
+
+        table.store(slot, scratch, 0, hash);
+        size++;
+
+        if (oldTable != null) migrate();
+        else if (table.isFull())
+        {
+            oldTable = table;
+            table = new PositionTable(oldTable.capacity() << 1, keyWords);
+            migrated = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Move the next few slots of the old table into the current one
+     */
+    private void migrate()
+    {
+        int end = Math.min(migrated + MIGRATE_PER_ADD, oldTable.capacity());
+
+        // The old table is left untouched so its probe sequences stay valid until it is dropped
+        for (; migrated < end; migrated++)
+            if (oldTable.isUsed(migrated))
+                table.insert(oldTable.keys, migrated * keyWords, oldTable.hashes[migrated]);
+
+        if (migrated == oldTable.capacity()) oldTable = null;
+    }
+
+    private boolean contains(PositionTable t, int hash)
+    {
+        return t.isUsed(t.find(scratch, hash));
+    }
+}
@@ -0,0 +1,255 @@
+package src.Algorithm;
+
+import src.ADT.*;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Anytime Repairing A* (ARA*) for the Rush Hour puzzle.
+ * The search runs weighted A* with f = g + w * h, starting with a large weight that
+ * finds a first solution quickly. After each pass the weight is lowered and the search
+ * goes on from where it stopped: the best g of every position is kept, positions that
+ * got cheaper after being expanded are queued again, and the open list is only re-keyed
+ * for the new weight. Passes stop at the deadline or once w reaches 1 and the solution
+ * is proven optimal.
+ *
+ * Every improved solution is given to the listener together with the suboptimality
+ * bound, the largest factor by which it can be longer than the optimum when the
+ * heuristic is admissible.
+ */
+public class ARAStar extends Algorithm
+{
+    // Constants
+    public static final Duration DEFAULT_BUDGET = Duration.ofSeconds(5); // Time budget of the default constructor
+
+    private static final int WEIGHT_SCALE = 10;   // Weights are kept in tenths so keys stay integers
+    private static final int INITIAL_WEIGHT = 30; // Weight of the first pass, 3.0
+    private static final int WEIGHT_STEP = 5;     // Weight removed after each pass, 0.5
+
+    /**
+     * Receives every solution that is shorter than the previous ones
+     */
+    public interface ImprovementListener
+    {
+        /**
+         * Called on the solving thread each time the solution improves
+         *
+         * @param moves The moves of the new solution, as returned by solve
+         * @param bound Suboptimality bound of the new solution
+         */
+        void onImprovement(List<int[]> moves, double bound);
+    }
+
+    // Attributes
+    private final Duration budget;              // Wall-clock time allowed for a search
+    private final ImprovementListener listener; // Receives improved solutions, null if none
+    private volatile double bound;              // Suboptimality bound of the best solution, infinite if none
+
+    public ARAStar(Board board)
+    {
+        this(board, DEFAULT_BUDGET, null);
+    }
+
+    /**
+     * Constructor for the ARAStar class
+     *
+     * @param board The initial board state
+     * @param budget Wall-clock time allowed for each call to solve
+     * @param listener Receives every improved solution, may be null
+     */
+    public ARAStar(Board board, Duration budget, ImprovementListener listener)
+    {
+        super(board);
+        if (budget.isNegative()) throw new IllegalArgumentException("Negative time budget: " + budget);
+        this.budget   = budget;
+        this.listener = listener;
+        this.bound    = Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Get the suboptimality bound of the best solution found so far
+     *
+     * @return 1.0 if it is optimal, a larger factor if it may not be, infinity before any solution
+     */
+    public double getSuboptimalityBound() { return this.bound; }
+
+    @Override
+    public List<int[]> solve(String heuristic)
+    {
+        // Building the heuristic counts against the budget too
+        long startTime = startTiming();
+        long deadline = System.nanoTime() + budget.toNanos();
+        return search(heuristicFor(heuristic), deadline, startTime);
+    }
+
+    /**
+     * Run passes of weighted A* with decreasing weights until the deadline
+     *
+     * @param heuristic Heuristic evaluated once for every new position
+     * @param deadline Value of System.nanoTime at which the search stops
+     * @param startTime Time the solve started, before the heuristic was built
+     * @return The best solution found in time, empty if there is none
+     */
+    private List<int[]> search(Heuristic heuristic, long deadline, long startTime)
+    {
+        Board curBoard = initialBoard.copy();
+        int[] moveBuffer = new int[initialBoard.getMaxMoves()];
+        int maxCost = initialBoard.getRows() * initialBoard.getCols() * 50;
+
+        this.bound = Double.POSITIVE_INFINITY;
+        if (initialBoard.isSolved())
+        {
+            this.bound = 1.0;
+            endTiming(startTime);
+            return new ArrayList<>();
+        }
+
+        // Best state of every position seen, kept across passes so each pass reuses the previous ones
+        List<State> states = new ArrayList<>();
+        PositionMap index = new PositionMap(initialBoard);
+        BitSet closed = new BitSet();       // Expanded in the current pass
+        BitSet inconsistent = new BitSet(); // Got cheaper after being expanded in the current pass
+
+        State root = new State(initialBoard.getPositions(), heuristic.calculate(initialBoard));
+        index.put(initialBoard, 0);
+        states.add(root);
+
+        int weight = INITIAL_WEIGHT;
+        BucketQueue<Integer> open = new BucketQueue<>();
+        if (root.getHValue() != State.INVALID) open.add(0, key(root, weight), root.getHValue());
+
+        State incumbent = null;
+        State reported = null;
+
+        while (true)
+        {
+            boolean finished = true;
+
+            // One pass of weighted A*, until nothing left in the open list can beat the incumbent
+            while (!open.isEmpty())
+            {
+                if (incumbent != null && WEIGHT_SCALE * incumbent.getGValue() <= open.peekPriority()) break;
+                if (System.nanoTime() >= deadline)
+                {
+                    finished = false;
+                    break;
+                }
+
+                // Entries left behind by a cheaper path are polled after it, when the node is closed
+                int node = open.poll();
+                if (closed.get(node)) continue;
+                closed.set(node);
+
+                State curState = states.get(node);
+                curBoard.setPositions(curState.getPositions());
+                incrementNodesExplored();
+
+                if (curState.getGValue() >= maxCost) continue;
+
+                int moveCount = curBoard.generateMoves(moveBuffer);
+                for (int m = 0; m < moveCount; m++)
+                {
+                    if (MovePruning.isRedundant(curBoard, curState.getLastMove(), moveBuffer[m])) continue;
+
+                    int i = Board.moveCar(moveBuffer[m]);
+                    int moveAmount = Board.moveAmount(moveBuffer[m]);
+
+                    curBoard.doMove(i, moveAmount);
+
+                    int child = index.get(curBoard);
+                    if (child == PositionMap.MISSING || curState.getGValue() + 1 < states.get(child).getGValue())
+                    {
+                        int hValue = (child == PositionMap.MISSING)
+                            ? heuristic.delta(curBoard, curState.getHValue(), moveBuffer[m])
+                            : states.get(child).getHValue();
+                        State next = curState.addMove(i, moveAmount, curBoard.getPositions(), hValue);
+
+                        if (child == PositionMap.MISSING)
+                        {
+                            child = states.size();
+                            index.put(curBoard, child);
+                            states.add(next);
+                        }
+                        else states.set(child, next);
+
+                        if (curBoard.isSolved() && (incumbent == null || next.getGValue() < incumbent.getGValue()))
+                            incumbent = next;
+
+                        // Positions that cannot reach the exit are remembered but never queued
+                        if (hValue != State.INVALID)
+                        {
+                            if (closed.get(child)) inconsistent.set(child);
+                            else open.add(child, key(next, weight), hValue);
+                        }
+                    }
+                    curBoard.undoMove(i, moveAmount);
+                }
+            }
+
+            // Everything that may still lead to a shorter solution
+            List<Integer> frontier = new ArrayList<>();
+            while (!open.isEmpty())
+            {
+                int node = open.poll();
+                if (!closed.get(node) && !inconsistent.get(node))
+                {
+                    closed.set(node);
+                    frontier.add(node);
+                }
+            }
+            for (int node = inconsistent.nextSetBit(0); node >= 0; node = inconsistent.nextSetBit(node + 1))
+                frontier.add(node);
+
+            if (incumbent != null)
+            {
+                this.bound = boundOf(incumbent, frontier, states, weight);
+                if (incumbent != reported && listener != null) listener.onImprovement(incumbent.getMoves(), bound);
+                reported = incumbent;
+            }
+
+            if (!finished || frontier.isEmpty() || weight == WEIGHT_SCALE) break;
+
+            // Lower the weight and carry the frontier over to the next pass
+            weight = Math.max(WEIGHT_SCALE, weight - WEIGHT_STEP);
+            closed.clear();
+            inconsistent.clear();
+            for (int node : frontier)
+                open.add(node, key(states.get(node), weight), states.get(node).getHValue());
+        }
+
+        endTiming(startTime);
+        return (incumbent == null) ? new ArrayList<>() : incumbent.getMoves();
+    }
+
+    /**
+     * Get the priority of a state in the open list
+     *
+     * @param state The state to queue
+     * @param weight Current weight, in tenths
+     * @return WEIGHT_SCALE times g + w * h
+     */
+    private static int key(State state, int weight)
+    {
+        return WEIGHT_SCALE * state.getGValue() + weight * state.getHValue();
+    }
+
+    /**
+     * Get the suboptimality bound of a solution at the end of a pass
+     *
+     * @param incumbent The best solution found
+     * @param frontier Positions that may still lead to a shorter solution
+     * @param states Best state of every position
+     * @param weight Weight of the pass, in tenths
+     * @return The smaller of the weight and the solution length over the lowest g + h of the frontier, at least 1
+     */
+    private static double boundOf(State incumbent, List<Integer> frontier, List<State> states, int weight)
+    {
+        int lowest = Integer.MAX_VALUE;
+        for (int node : frontier)
+            lowest = Math.min(lowest, states.get(node).getFValue());
+
+        if (lowest >= incumbent.getGValue()) return 1.0;
+        double ratio = (lowest == 0) ? Double.POSITIVE_INFINITY : (double) incumbent.getGValue() / lowest;
+        return Math.max(1.0, Math.min((double) weight / WEIGHT_SCALE, ratio));
+    }
+}
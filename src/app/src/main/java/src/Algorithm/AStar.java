@@ -5,129 +5,118 @@ import java.util.*;
 
 public class AStar extends Algorithm 
 {
+    private DistanceTable table; // Exact distances for the "Exact" heuristic, null if not given
+
     public AStar(Board board) 
     {
         super(board);
+        this.table = null;
+    }
+
+    /**
+     * Constructor for the AStar class with a distance table as a perfect heuristic
+     * 
+     * @param board The initial board state
+     * @param table Distance table of the board's layout
+     */
+    public AStar(Board board, DistanceTable table) 
+    {
+        super(board);
+        if (!table.covers(board)) throw new IllegalArgumentException("Distance table of another layout");
+        this.table = table;
     }
 
     @Override
     public List<int[]> solve(String heuristic) 
     {
-        if (heuristic.equals("Blocking")) return solveBlockingCars();
-        else if (heuristic.equals("Manhattan")) return solveManhattanDistance();
-        else throw new IllegalArgumentException("Invalid heuristic: " + heuristic);
+        long startTime = startTiming();
+        if (heuristic.equals("Exact") && table != null) return solveExactDistance(startTime);
+        else return search(heuristicFor(heuristic), startTime);
     }
 
-    private List<int[]> solveBlockingCars() 
+    private List<int[]> solveExactDistance(long startTime) 
     {
-        long startTime = startTiming();
+        // Positions outside the table cannot reach the exit
+        return search(board -> {
+            int distance = table.getDistance(board);
+            return (distance == DistanceTable.UNREACHABLE) ? State.INVALID : distance;
+        }, startTime);
+    }
+
+    /**
+     * Run A* with the given heuristic
+     * 
+     * Positions are closed when they are expanded, not when they are generated, and are
+     * queued again whenever a cheaper path to them is found, so the first solution polled
+     * is optimal for any admissible heuristic, consistent or not. Commuting moves are not
+     * pruned here (see MovePruning): a position reached at the same cost by another last
+     * move would lose the successors of its canonical path.
+     * 
+     * @param heuristic Heuristic evaluated for every generated position
+     * @param startTime Time the solve started, before the heuristic was built
+     * @return A list of moves to solve the puzzle, empty if no solution was found
+     */
+    private List<int[]> search(Heuristic heuristic, long startTime) 
+    {
+        Board curBoard = initialBoard.copy();
+        int[] moveBuffer = new int[initialBoard.getMaxMoves()];
         
-        PriorityQueue<State> queue = new PriorityQueue<>(Comparator.comparingInt(s -> s.getFValue()));
-        List<int[]> initialMoves = new ArrayList<>();
+        BucketQueue<State> queue = new BucketQueue<>();
+        PositionMap bestCosts = new PositionMap(initialBoard); // Smallest g seen per position
         
-        int intialHValue = State.calculateBlockingCarHeuristic(initialBoard);
+        int initialHValue = heuristic.calculate(initialBoard);
 
-        addToVisited(initialBoard);
-        queue.add(new State(initialBoard, initialMoves, intialHValue));
+        bestCosts.put(initialBoard, 0);
+        State initialState = new State(initialBoard.getPositions(), initialHValue);
+        if (initialHValue != State.INVALID) queue.add(initialState, initialState.getFValue(), initialState.getHValue());
         
         while (!queue.isEmpty())
         {
             State curState = queue.poll();
-            Board curBoard = curState.getBoard();
-            List<Car> pieces = curBoard.getCars();
-            List<int[]> curMoves = curState.getMoves();
+            curBoard.setPositions(curState.getPositions());
+
+            // Skip entries that were reached more cheaply after they were queued
+            if (bestCosts.get(curBoard) < curState.getGValue()) continue;
             incrementNodesExplored();
 
             if (curBoard.isSolved())
             {
                 endTiming(startTime);
-                return curMoves;
+                return curState.getMoves();
             }
             
             // Set maximum cost limit
             int maxCost = curBoard.getRows() * curBoard.getCols() * 50;
-            if (curMoves.size() > maxCost) continue;
-
-            for (int i = 0; i < pieces.size(); i++) 
-            {
-                List<Integer> validMoves = curBoard.getValidMoves(i);
-                for (Integer moveAmount : validMoves)
-                {
-                    Board newBoard = curBoard.copy();
-                    newBoard = newBoard.applyMove(i, moveAmount);
-                    
-                    if (!hasBeenVisited(newBoard))
-                    {
-                        addToVisited(newBoard);
-                        
-                        List<int[]> newMoves = new ArrayList<>(curMoves);
-                        newMoves.add(new int[]{i, moveAmount});
-                        
-                        int hValue = State.calculateBlockingCarHeuristic(newBoard);
-                        queue.add(new State(newBoard, newMoves, hValue));
-                    }
-                }
-            }
-        }
-        
-        endTiming(startTime);
-        return new ArrayList<>();
-    }
+            if (curState.getGValue() > maxCost) continue;
 
-    private List<int[]> solveManhattanDistance() 
-    {
-        long startTime = startTiming();
-        
-        PriorityQueue<State> queue = new PriorityQueue<>(Comparator.comparingInt(s -> s.getFValue()));
-        List<int[]> initialMoves = new ArrayList<>();
-        
-        int initialHValue = State.calculateManhattanDistanceHeuristic(initialBoard);
-
-        addToVisited(initialBoard);
-        queue.add(new State(initialBoard, initialMoves, initialHValue));
-        
-        while (!queue.isEmpty())
-        {
-            State curState = queue.poll();
-            Board curBoard = curState.getBoard();
-            List<Car> pieces = curBoard.getCars();
-            List<int[]> curMoves = curState.getMoves();
-
-            incrementNodesExplored();
-            
-            if (curBoard.isSolved())
+            int gValue = curState.getGValue() + 1;
+            int moveCount = curBoard.generateMoves(moveBuffer);
+            for (int m = 0; m < moveCount; m++)
             {
-                endTiming(startTime);
-                return curMoves;
-            }
+                int i = Board.moveCar(moveBuffer[m]);
+                int moveAmount = Board.moveAmount(moveBuffer[m]);
 
-            int maxCost = curBoard.getRows() * curBoard.getCols() * 50;
-            if (curMoves.size() > maxCost) continue;
-            
-            for (int i = 0; i < pieces.size(); i++)
-            {
-                List<Integer> validMoves = curBoard.getValidMoves(i);
-                for (Integer moveAmount : validMoves)
+                // Try the move in place and only store the positions reached more cheaply than before
+                curBoard.doMove(i, moveAmount);
+                
+                int known = bestCosts.get(curBoard);
+                if (known == PositionMap.MISSING || gValue < known)
                 {
-                    Board newBoard = curBoard.copy();
-                    newBoard = newBoard.applyMove(i, moveAmount);
+                    bestCosts.put(curBoard, gValue);
                     
-                    // Check if state has been visited BEFORE adding to queue
-                    if (!hasBeenVisited(newBoard))
+                    // Positions that cannot reach the exit are never queued, their keys would size the buckets
+                    int hValue = heuristic.delta(curBoard, curState.getHValue(), moveBuffer[m]);
+                    if (hValue != State.INVALID)
                     {
-                        addToVisited(newBoard);
-                        
-                        List<int[]> newMoves = new ArrayList<>(curMoves);
-                        newMoves.add(new int[]{i, moveAmount});
-                        
-                        int hValue = State.calculateManhattanDistanceHeuristic(newBoard);
-                        queue.add(new State(newBoard, newMoves, hValue));
+                        State next = curState.addMove(i, moveAmount, curBoard.getPositions(), hValue);
+                        queue.add(next, next.getFValue(), next.getHValue());
                     }
                 }
+                curBoard.undoMove(i, moveAmount);
             }
         }
         
         endTiming(startTime);
         return new ArrayList<>();
     }
-}
\ No newline at end of file
+}
@@ -5,8 +5,14 @@ import java.util.*;
 
 public abstract class Algorithm 
 {
+    // Constants
+    private static final long MAX_RANKED_VISITED = 1L << 27; // Largest rank count kept as a bitset, 16 MB
+
     protected Board initialBoard;
-    protected Set<String> visitedStates;
+    protected VisitedSet visitedStates;          // Null until the first visited check, and when visitedRanks is used
+    protected PositionRanker ranker;             // Ranker of the layout, null unless visitedRanks is used
+    protected RankBitSet visitedRanks;           // Visited positions by rank, for layouts with few ranks
+    protected TranspositionTable transpositions; // Null unless a depth-first solver enables it
     protected int nodesExplored;
     protected long executionTime;
     
@@ -18,12 +24,16 @@ public abstract class Algorithm
     public Algorithm(Board board) 
     {
         this.initialBoard = board;
-        this.visitedStates = new HashSet<>();
+        this.visitedStates = null;
+        this.ranker = null;
+        this.visitedRanks = null;
+        this.transpositions = null;
         this.nodesExplored = 0;
         this.executionTime = 0;
     }
 
     public int getNodesExplored() { return nodesExplored; }
+    public TranspositionTable getTranspositionTable() { return transpositions; }
     public long getExecutionTime() { return executionTime; }
     protected void setExecutionTime(long time) { this.executionTime = time; }
     protected long startTiming() { return System.currentTimeMillis(); }
@@ -74,6 +84,37 @@ public abstract class Algorithm
         return steppedMoves;
     }
     
+    /**
+     * Get the heuristic function for a heuristic name. "Pattern" builds its databases here
+     * on the first use of a layout, so solvers start timing before calling this.
+     * 
+     * @param heuristic "Blocking", "Manhattan", "Pattern" or "Dependency"
+     * @return The heuristic, evaluated on a board
+     */
+    protected Heuristic heuristicFor(String heuristic) 
+    {
+        if (heuristic.equals("Blocking")) return BlockingCarHeuristic.INSTANCE;
+        else if (heuristic.equals("Manhattan")) return ManhattanHeuristic.INSTANCE;
+        else if (heuristic.equals("Pattern")) return PatternHeuristic.forBoard(initialBoard);
+        else if (heuristic.equals("Dependency")) return BlockerHeuristic::calculate;
+        else throw new IllegalArgumentException("Invalid heuristic: " + heuristic);
+    }
+
+    /**
+     * Allocate the visited set on first use, solvers without a closed set never pay for it
+     */
+    private void initVisited()
+    {
+        // Small layouts get one bit per possible position instead of a hash set
+        PositionRanker layoutRanker = new PositionRanker(initialBoard);
+        if (layoutRanker.fitsIn(MAX_RANKED_VISITED))
+        {
+            this.ranker = layoutRanker;
+            this.visitedRanks = new RankBitSet(layoutRanker.getRankCount());
+        }
+        else this.visitedStates = new VisitedSet(initialBoard);
+    }
+
     /**
      * Helper method to add a state to the visited set
      * 
@@ -81,8 +122,9 @@ public abstract class Algorithm
      */
     protected void addToVisited(Board board) 
     {
-        String boardStr = State.getBoardStateString(board);
-        visitedStates.add(boardStr);
+        if (visitedRanks == null && visitedStates == null) initVisited();
+        if (visitedRanks != null) visitedRanks.add(ranker.rank(board));
+        else visitedStates.add(board);
     }
     
     /**
@@ -93,10 +135,47 @@ public abstract class Algorithm
      */
     protected boolean hasBeenVisited(Board board) 
     {
-        String boardStr = State.getBoardStateString(board);
-        return visitedStates.contains(boardStr);
+        if (visitedRanks == null && visitedStates == null) initVisited();
+        if (visitedRanks != null) return visitedRanks.contains(ranker.rank(board));
+        return visitedStates.contains(board);
     }
     
+    /**
+     * Give the solver a transposition table of a fixed size
+     *
+     * @param memoryBytes Memory budget of the table in bytes, 0 to search without a table
+     */
+    public void setTranspositionBudget(long memoryBytes)
+    {
+        this.transpositions = (memoryBytes > 0) ? new TranspositionTable(memoryBytes) : null;
+    }
+
+    /**
+     * Helper method for depth-first solvers to check a position against the transposition table
+     *
+     * @param board The board reached
+     * @param g Number of moves made to reach the board
+     * @param bound Largest f value allowed in the current iteration
+     * @return TranspositionTable.MISS if the board must be searched, otherwise the f value to report for it
+     */
+    protected int probeTransposition(Board board, int g, int bound)
+    {
+        if (transpositions == null) return TranspositionTable.MISS;
+        return transpositions.probe(board.getZobristHash(), g, bound);
+    }
+
+    /**
+     * Helper method for depth-first solvers to record a subtree that did not reach the goal
+     *
+     * @param board The board at the root of the subtree
+     * @param g Number of moves made to reach the board
+     * @param failedBound Smallest f value above the bound found in the subtree
+     */
+    protected void storeTransposition(Board board, int g, int failedBound)
+    {
+        if (transpositions != null) transpositions.store(board.getZobristHash(), g, failedBound);
+    }
+
     /**
      * Increment the number of nodes explored
      */
@@ -0,0 +1,138 @@
+package src.Algorithm;
+
+import src.ADT.*;
+import java.util.*;
+
+/**
+ * Beam search for the Rush Hour puzzle, for boards too large for the other solvers.
+ * The search goes one move deeper at a time and keeps only the width best positions
+ * of each layer by heuristic value. Memory is bounded by the width: successors are
+ * selected with a heap of at most width entries as they are generated, duplicates within
+ * a layer are caught by a HashFilter a few times the width, and positions kept in earlier
+ * layers are remembered by a fixed-size HashFilter, where a new position can overwrite
+ * any older one once the slots near its hash are taken.
+ *
+ * Solutions are not optimal, and a too narrow beam can miss every solution. Both
+ * filters compare hashes only, so a rare collision also drops a position never seen.
+ */
+public class BeamSearch extends Algorithm
+{
+    // Constants
+    public static final int DEFAULT_WIDTH = 1000; // Beam width of the default constructor
+
+    private static final int LAYER_FACTOR = 16;     // Successors per kept position the layer filter is sized for
+    private static final int HISTORY_LAYERS = 256;  // Layers worth of beams remembered to avoid going back
+    private static final int MAX_HISTORY = 1 << 24; // Largest number of remembered positions, 128 MB
+
+    // Attributes
+    private final int width; // Number of positions kept in each layer
+
+    public BeamSearch(Board board)
+    {
+        this(board, DEFAULT_WIDTH);
+    }
+
+    /**
+     * Constructor for the BeamSearch class with a chosen beam width
+     *
+     * @param board The initial board state
+     * @param width Number of positions kept in each layer
+     */
+    public BeamSearch(Board board, int width)
+    {
+        super(board);
+        if (width < 1) throw new IllegalArgumentException("Invalid beam width: " + width);
+        this.width = width;
+    }
+
+    public int getWidth() { return this.width; }
+
+    @Override
+    public List<int[]> solve(String heuristic)
+    {
+        long startTime = startTiming();
+        return search(heuristicFor(heuristic), startTime);
+    }
+
+    /**
+     * Run the beam search with the given heuristic
+     *
+     * @param heuristic Heuristic used to rank the positions of a layer
+     * @param startTime Time the solve started, before the heuristic was built
+     * @return A list of moves to solve the puzzle, empty if no solution was found
+     */
+    private List<int[]> search(Heuristic heuristic, long startTime)
+    {
+        Board curBoard = initialBoard.copy();
+        int[] moveBuffer = new int[initialBoard.getMaxMoves()];
+        int maxCost = initialBoard.getRows() * initialBoard.getCols() * 50;
+
+        if (initialBoard.isSolved())
+        {
+            endTiming(startTime);
+            return new ArrayList<>();
+        }
+
+        long layerSize = (long) width * Math.min(LAYER_FACTOR, initialBoard.getMaxMoves());
+        HashFilter layerSeen = new HashFilter((int) Math.min(Integer.MAX_VALUE, layerSize));
+        HashFilter history = new HashFilter((int) Math.min(MAX_HISTORY, (long) width * HISTORY_LAYERS));
+        history.add(initialBoard);
+
+        List<State> beam = new ArrayList<>();
+        beam.add(new State(initialBoard.getPositions(), heuristic.calculate(initialBoard)));
+
+        // Worst kept successor on top, so a better one can replace it
+        PriorityQueue<State> best = new PriorityQueue<>(Comparator.comparingInt(State::getHValue).reversed());
+
+        for (int depth = 0; depth < maxCost && !beam.isEmpty(); depth++)
+        {
+            layerSeen.clear();
+
+            for (State curState : beam)
+            {
+                curBoard.setPositions(curState.getPositions());
+                incrementNodesExplored();
+
+                int moveCount = curBoard.generateMoves(moveBuffer);
+                for (int m = 0; m < moveCount; m++)
+                {
+                    if (MovePruning.isRedundant(curBoard, curState.getLastMove(), moveBuffer[m])) continue;
+
+                    int i = Board.moveCar(moveBuffer[m]);
+                    int moveAmount = Board.moveAmount(moveBuffer[m]);
+
+                    curBoard.doMove(i, moveAmount);
+
+                    // The layer filter is checked first so that a position is only looked up once in history
+                    if (layerSeen.add(curBoard) && !history.contains(curBoard))
+                    {
+                        int hValue = heuristic.delta(curBoard, curState.getHValue(), moveBuffer[m]);
+
+                        if (curBoard.isSolved())
+                        {
+                            endTiming(startTime);
+                            return curState.addMove(i, moveAmount, curBoard.getPositions(), hValue).getMoves();
+                        }
+                        if (hValue != State.INVALID && (best.size() < width || hValue < best.peek().getHValue()))
+                        {
+                            if (best.size() == width) best.poll();
+                            best.add(curState.addMove(i, moveAmount, curBoard.getPositions(), hValue));
+                        }
+                    }
+                    curBoard.undoMove(i, moveAmount);
+                }
+            }
+
+            beam = new ArrayList<>(best);
+            best.clear();
+            for (State kept : beam)
+            {
+                curBoard.setPositions(kept.getPositions());
+                history.add(curBoard);
+            }
+        }
+
+        endTiming(startTime);
+        return new ArrayList<>();
+    }
+}
@@ -0,0 +1,209 @@
+package src.Algorithm;
+
+import src.ADT.*;
+import java.util.*;
+
+/**
+ * Bidirectional breadth-first search for the Rush Hour puzzle.
+ * A forward search grows from the initial board and a backward search grows from a
+ * set of solved positions. Every move can be undone by the opposite move, so both
+ * searches use the same move generator. One full layer of the smaller frontier is
+ * expanded at a time, and the search stops in the first layer where the two meet.
+ *
+ * Most puzzles have far more solved positions than the forward frontier ever holds,
+ * so the backward search is seeded only with the solved positions where the
+ * cars that cannot cross the primary car's path are still at their initial offsets
+ * (see seedGoals). The forward search still recognises any solved position with
+ * Board.isSolved. The solution is no longer than a shortest one ending in a seeded position,
+ * but a shorter one that moves a held car can be missed, so it is not always optimal.
+ * When the seeded positions outnumber the forward frontier the backward search never
+ * starts, and the search is a plain forward breadth-first search.
+ */
+public class Bidirectional extends Algorithm
+{
+    // Attributes
+    private Board curBoard;    // Working board moved in place during expansion
+    private int[] moveBuffer;  // Reusable buffer for generated moves
+
+    /**
+     * One direction of the search: the positions reached and the current layer
+     */
+    private static final class Side
+    {
+        final List<State> states = new ArrayList<>(); // Every position reached, by index
+        final PositionMap index;                      // Position to its index in states
+        List<State> frontier = new ArrayList<>();     // Positions of the last layer
+
+        Side(Board board) { this.index = new PositionMap(board); }
+
+        /**
+         * Add a position that is not in this side yet
+         *
+         * @param board The board holding the position
+         * @param state The state reaching it
+         */
+        void add(Board board, State state)
+        {
+            index.put(board, states.size());
+            states.add(state);
+            frontier.add(state);
+        }
+    }
+
+    public Bidirectional(Board board)
+    {
+        super(board);
+    }
+
+    @Override
+    public List<int[]> solve(String heuristic)
+    {
+        // Breadth-first search doesn't use heuristics, ignore the parameter
+        return solveBidirectional();
+    }
+
+    private List<int[]> solveBidirectional()
+    {
+        long startTime = startTiming();
+
+        this.curBoard   = initialBoard.copy();
+        this.moveBuffer = new int[initialBoard.getMaxMoves()];
+
+        if (initialBoard.isSolved())
+        {
+            endTiming(startTime);
+            return new ArrayList<>();
+        }
+
+        Side forward = new Side(initialBoard);
+        Side backward = new Side(initialBoard);
+        forward.add(initialBoard, new State(initialBoard.getPositions()));
+
+        GoalPositions goals = seedGoals();
+        List<int[]> moves = null;
+
+        while (moves == null && !forward.frontier.isEmpty())
+        {
+            // Only enumerate as many solved positions as needed to tell which frontier is smaller
+            while (goals.hasNext() && backward.frontier.size() <= forward.frontier.size())
+            {
+                byte[] goal = goals.next();
+                curBoard.setPositions(goal);
+                backward.add(curBoard, new State(goal));
+            }
+
+            if (!goals.hasNext() && !backward.frontier.isEmpty() && backward.frontier.size() < forward.frontier.size())
+                moves = expandLayer(backward, forward, false);
+            else
+                moves = expandLayer(forward, backward, true);
+        }
+
+        endTiming(startTime);
+        return (moves == null) ? new ArrayList<>() : moves;
+    }
+
+    /**
+     * Build the solved positions the backward search starts from. Cars that cannot cross
+     * the primary car's path are held at their offsets on the initial board. When that
+     * leaves no solved position, the cars one step further from the path are freed too,
+     * until some solved position is left or no more cars can be freed.
+     *
+     * @return The seeded solved positions, possibly none
+     */
+    private GoalPositions seedGoals()
+    {
+        int freed = 0;
+        for (int steps = 1; ; steps++)
+        {
+            boolean[] held = RelevantCars.findCarsNearPath(initialBoard, steps);
+            int nearCount = 0;
+            for (int c = 0; c < held.length; c++)
+            {
+                if (held[c]) nearCount++;
+                held[c] = !held[c];
+            }
+
+            GoalPositions goals = new GoalPositions(initialBoard, held);
+            if (goals.hasNext() || nearCount == freed) return goals;
+            freed = nearCount;
+        }
+    }
+
+    /**
+     * Expand every position of one side's frontier
+     *
+     * @param side The side to expand
+     * @param other The opposite side, checked for meeting points
+     * @param isForward Whether side is the forward search
+     * @return The cheapest solution through this layer, or null if the sides did not meet
+     */
+    private List<int[]> expandLayer(Side side, Side other, boolean isForward)
+    {
+        List<State> layer = side.frontier;
+        side.frontier = new ArrayList<>();
+
+        State bestHere = null;  // Meeting state on this side
+        State bestThere = null; // Matching state on the other side
+        int bestCost = Integer.MAX_VALUE;
+
+        for (State curState : layer)
+        {
+            curBoard.setPositions(curState.getPositions());
+            incrementNodesExplored();
+
+            int moveCount = curBoard.generateMoves(moveBuffer);
+            for (int m = 0; m < moveCount; m++)
+            {
+                if (MovePruning.isRedundant(curBoard, curState.getLastMove(), moveBuffer[m])) continue;
+
+                int i = Board.moveCar(moveBuffer[m]);
+                int moveAmount = Board.moveAmount(moveBuffer[m]);
+
+                curBoard.doMove(i, moveAmount);
+
+                if (side.index.get(curBoard) == PositionMap.MISSING)
+                {
+                    State next = curState.addMove(i, moveAmount, curBoard.getPositions(), 0);
+                    side.add(curBoard, next);
+
+                    // Solved positions the backward side was not seeded with, or has not built yet, are still goals
+                    int match = other.index.get(curBoard);
+                    State there = (match != PositionMap.MISSING) ? other.states.get(match)
+                                : (isForward && curBoard.isSolved()) ? new State(next.getPositions())
+                                : null;
+
+                    if (there != null && next.getGValue() + there.getGValue() < bestCost)
+                    {
+                        bestCost  = next.getGValue() + there.getGValue();
+                        bestHere  = next;
+                        bestThere = there;
+                    }
+                }
+                curBoard.undoMove(i, moveAmount);
+            }
+        }
+
+        // Every meeting point of the first meeting layer is checked, the cheapest one is kept
+        if (bestHere == null) return null;
+        return isForward ? joinPath(bestHere, bestThere) : joinPath(bestThere, bestHere);
+    }
+
+    /**
+     * Join a forward path and a backward path that end on the same position
+     *
+     * @param fromStart State of the forward search, reached from the initial board
+     * @param fromGoal State of the backward search, reached from a solved position
+     * @return The moves from the initial board to the solved position
+     */
+    private static List<int[]> joinPath(State fromStart, State fromGoal)
+    {
+        List<int[]> moves = fromStart.getMoves();
+        List<int[]> backMoves = fromGoal.getMoves();
+
+        // The backward moves lead away from the goal, undo them in reverse order
+        for (int k = backMoves.size() - 1; k >= 0; k--)
+            moves.add(new int[]{backMoves.get(k)[0], -backMoves.get(k)[1]});
+
+        return moves;
+    }
+}
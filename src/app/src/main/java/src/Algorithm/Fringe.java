@@ -5,200 +5,202 @@ import java.util.*;
 
 /**
  * Implementation of Fringe Search algorithm for the Rush Hour puzzle.
- * Fringe Search is a memory-efficient alternative to A* that uses a linked list 
- * instead of a priority queue, reducing memory overhead while maintaining 
+ * Fringe Search is a memory-efficient alternative to A* that uses a linked list
+ * instead of a priority queue, reducing memory overhead while maintaining
  * comparable performance.
+ *
+ * The fringe is a single index-linked list that is walked from head to tail once per
+ * f-limit. Nodes above the limit are skipped in place, expanded nodes are unlinked and
+ * their children are linked right after them so they are visited in the same pass.
+ * Nothing is ever sorted.
  */
-public class Fringe extends Algorithm 
+public class Fringe extends Algorithm
 {
-    public Fringe(Board board) 
+    // Constants
+    private static final int NIL = -1;        // End of the fringe, or no node
+    private static final int UNLISTED = -2;   // Link value of nodes that are not in the fringe
+    private static final int INITIAL_NODES = 1024;
+
+    // Attributes
+    private State[] states; // Best state found so far for each node, holds its g and h
+    private int[] next;     // Next node in the fringe, NIL at the tail, UNLISTED if not in the fringe
+    private int[] prev;     // Previous node in the fringe, NIL at the head
+    private int nodeCount;  // Number of nodes created, one per distinct position
+    private int head;       // First node of the fringe, NIL if empty
+
+    public Fringe(Board board)
     {
         super(board);
     }
 
     @Override
-    public List<int[]> solve(String heuristic) 
+    public List<int[]> solve(String heuristic)
     {
-        if (heuristic.equals("Blocking")) return solveBlockingCars();
-        else if (heuristic.equals("Manhattan")) return solveManhattanDistance();
-        else throw new IllegalArgumentException("Invalid heuristic: " + heuristic);
+        long startTime = startTiming();
+        return search(heuristicFor(heuristic), startTime);
     }
 
-    private List<int[]> solveBlockingCars() 
+    /**
+     * Run Fringe Search with the given heuristic
+     *
+     * @param heuristic Heuristic evaluated once for every new position
+     * @param startTime Time the solve started, before the heuristic was built
+     * @return A list of moves to solve the puzzle, empty if no solution was found
+     */
+    private List<int[]> search(Heuristic heuristic, long startTime)
     {
-        long startTime = startTiming();
-        
-        List<State> fringe = new ArrayList<>();
-        List<int[]> initialMoves = new ArrayList<>();
-        
-        int initialHValue = State.calculateBlockingCarHeuristic(initialBoard);
-        int fLimit = initialHValue; 
-
-        addToVisited(initialBoard);
-        fringe.add(new State(initialBoard, initialMoves, initialHValue));
-        
-        while (!fringe.isEmpty())
+        Board curBoard = initialBoard.copy();
+        int[] moveBuffer = new int[initialBoard.getMaxMoves()];
+        int maxCost = initialBoard.getRows() * initialBoard.getCols() * 50;
+
+        // The cache maps every position seen to its node, the node keeps the best g found for it
+        PositionMap cache = new PositionMap(initialBoard);
+        this.states    = new State[INITIAL_NODES];
+        this.next      = new int[INITIAL_NODES];
+        this.prev      = new int[INITIAL_NODES];
+        this.nodeCount = 0;
+        this.head      = NIL;
+
+        int root = newNode();
+        cache.put(initialBoard, root);
+        states[root] = new State(initialBoard.getPositions(), heuristic.calculate(initialBoard));
+        linkAfter(NIL, root);
+
+        int fLimit = states[root].getFValue();
+
+        while (head != NIL)
         {
-            Collections.sort(fringe, Comparator.comparingInt(s -> s.getFValue()));
-            
             int nextFLimit = Integer.MAX_VALUE;
-            List<State> nextFringe = new ArrayList<>();
-            
-            for (State curState : fringe) {
-                Board curBoard = curState.getBoard();
-                List<Car> pieces = curBoard.getCars();
-                List<int[]> curMoves = curState.getMoves();
+            int node = head;
+
+            while (node != NIL)
+            {
+                State curState = states[node];
                 int curFValue = curState.getFValue();
-                
-                if (curFValue > fLimit) {
+
+                // Leave the node where it is for a later pass
+                if (curFValue > fLimit)
+                {
                     nextFLimit = Math.min(nextFLimit, curFValue);
-                    nextFringe.add(curState);
+                    node = next[node];
                     continue;
                 }
-                
+
+                curBoard.setPositions(curState.getPositions());
                 incrementNodesExplored();
 
                 if (curBoard.isSolved())
                 {
                     endTiming(startTime);
-
-                    // if (curMoves.size() < 100) return splitMovesToSteps(curMoves);
-                    return curMoves;
+                    return curState.getMoves();
                 }
-            
-                int maxCost = curBoard.getRows() * curBoard.getCols() * 50;
-                if (curMoves.size() > maxCost) continue;
 
-                for (int i = 0; i < pieces.size(); i++) 
+                if (curState.getGValue() <= maxCost)
                 {
-                    List<Integer> validMoves = curBoard.getValidMoves(i);
-                    for (Integer moveAmount : validMoves)
+                    int childG = curState.getGValue() + 1;
+                    int cursor = node;
+
+                    int moveCount = curBoard.generateMoves(moveBuffer);
+                    for (int m = 0; m < moveCount; m++)
                     {
-                        Board newBoard = curBoard.copy();
-                        newBoard = newBoard.applyMove(i, moveAmount);
-                        
-                        if (!hasBeenVisited(newBoard))
+                        if (MovePruning.isRedundant(curBoard, curState.getLastMove(), moveBuffer[m])) continue;
+
+                        int i = Board.moveCar(moveBuffer[m]);
+                        int moveAmount = Board.moveAmount(moveBuffer[m]);
+
+                        curBoard.doMove(i, moveAmount);
+
+                        // Only new positions and cheaper paths to known ones go back into the fringe
+                        int child = cache.get(curBoard);
+                        if (child == PositionMap.MISSING || childG < states[child].getGValue())
                         {
-                            addToVisited(newBoard);
-                            
-                            List<int[]> newMoves = new ArrayList<>(curMoves);
-                            newMoves.add(new int[]{i, moveAmount});
-                            
-                            int hValue = State.calculateBlockingCarHeuristic(newBoard);
-                            int fValue = newMoves.size() + hValue;
-                            
-                            State newState = new State(newBoard, newMoves, hValue);
-                            
-                            if (fValue <= fLimit) {
-                                nextFringe.add(newState);
-                            } else {
-                                nextFLimit = Math.min(nextFLimit, fValue);
-                                nextFringe.add(newState);
+                            int hValue;
+                            if (child == PositionMap.MISSING)
+                            {
+                                child = newNode();
+                                cache.put(curBoard, child);
+                                hValue = heuristic.delta(curBoard, curState.getHValue(), moveBuffer[m]);
+                            }
+                            else
+                            {
+                                if (next[child] != UNLISTED) unlink(child);
+                                hValue = states[child].getHValue();
                             }
+
+                            states[child] = curState.addMove(i, moveAmount, curBoard.getPositions(), hValue);
+                            linkAfter(cursor, child);
+                            cursor = child;
                         }
+                        curBoard.undoMove(i, moveAmount);
                     }
                 }
+
+                // Children were linked after the node, so they are visited next in this pass
+                int following = next[node];
+                unlink(node);
+                node = following;
             }
-            
-            if (nextFLimit == Integer.MAX_VALUE && nextFringe.isEmpty()) {
-                endTiming(startTime);
-                return new ArrayList<>();
-            }
-            
+
             fLimit = nextFLimit;
-            fringe = nextFringe;
         }
-        
+
         endTiming(startTime);
         return new ArrayList<>();
     }
 
-    private List<int[]> solveManhattanDistance() 
+    /**
+     * Allocate a node that is not in the fringe yet
+     *
+     * @return Index of the new node
+     */
+    private int newNode()
     {
-        long startTime = startTiming();
-        
-        List<State> fringe = new ArrayList<>();
-        List<int[]> initialMoves = new ArrayList<>();
-        
-        int initialHValue = State.calculateManhattanDistanceHeuristic(initialBoard);
-        int fLimit = initialHValue;
-
-        addToVisited(initialBoard);
-        fringe.add(new State(initialBoard, initialMoves, initialHValue));
-        
-        while (!fringe.isEmpty())
+        if (nodeCount == states.length)
         {
-            Collections.sort(fringe, Comparator.comparingInt(s -> s.getFValue()));
-            
-            int nextFLimit = Integer.MAX_VALUE;
-            List<State> nextFringe = new ArrayList<>();
-            
-            for (State curState : fringe) {
-                Board curBoard = curState.getBoard();
-                List<Car> pieces = curBoard.getCars();
-                List<int[]> curMoves = curState.getMoves();
-                int curFValue = curState.getFValue();
-                
-                if (curFValue > fLimit) {
-                    nextFLimit = Math.min(nextFLimit, curFValue);
-                    nextFringe.add(curState);
-                    continue;
-                }
-                
-                incrementNodesExplored();
+            int capacity = states.length << 1;
+            states = Arrays.copyOf(states, capacity);
+            next   = Arrays.copyOf(next, capacity);
+            prev   = Arrays.copyOf(prev, capacity);
+        }
 
-                if (curBoard.isSolved())
-                {
-                    endTiming(startTime);
+        next[nodeCount] = UNLISTED;
+        prev[nodeCount] = NIL;
+        return nodeCount++;
+    }
 
-                    // if (curMoves.size() < 100) return splitMovesToSteps(curMoves);
-                    return curMoves;
-                }
-            
-                int maxCost = curBoard.getRows() * curBoard.getCols() * 50;
-                if (curMoves.size() > maxCost) continue;
+    /**
+     * Insert a node into the fringe
+     *
+     * @param after Node to insert after, NIL to insert at the head
+     * @param node Node to insert, must not be in the fringe
+     */
+    private void linkAfter(int after, int node)
+    {
+        int following = (after == NIL) ? head : next[after];
 
-                for (int i = 0; i < pieces.size(); i++) 
-                {
-                    List<Integer> validMoves = curBoard.getValidMoves(i);
-                    for (Integer moveAmount : validMoves)
-                    {
-                        Board newBoard = curBoard.copy();
-                        newBoard = newBoard.applyMove(i, moveAmount);
-                        
-                        if (!hasBeenVisited(newBoard))
-                        {
-                            addToVisited(newBoard);
-                            
-                            List<int[]> newMoves = new ArrayList<>(curMoves);
-                            newMoves.add(new int[]{i, moveAmount});
-                            
-                            int hValue = State.calculateManhattanDistanceHeuristic(newBoard);
-                            int fValue = newMoves.size() + hValue;
-                            
-                            State newState = new State(newBoard, newMoves, hValue);
-                            
-                            if (fValue <= fLimit) {
-                                nextFringe.add(newState);
-                            } else {
-                                nextFLimit = Math.min(nextFLimit, fValue);
-                                nextFringe.add(newState);
-                            }
-                        }
-                    }
-                }
-            }
-            
-            if (nextFLimit == Integer.MAX_VALUE && nextFringe.isEmpty()) {
-                endTiming(startTime);
-                return new ArrayList<>();
-            }
-            
-            fLimit = nextFLimit;
-            fringe = nextFringe;
-        }
-        
-        endTiming(startTime);
-        return new ArrayList<>();
+        prev[node] = after;
+        next[node] = following;
+        if (following != NIL) prev[following] = node;
+
+        if (after == NIL) head = node;
+        else next[after] = node;
+    }
+
+    /**
+     * Remove a node from the fringe
+     *
+     * @param node Node to remove, must be in the fringe
+     */
+    private void unlink(int node)
+    {
+        int before = prev[node];
+        int following = next[node];
+
+        if (before == NIL) head = following;
+        else next[before] = following;
+        if (following != NIL) prev[following] = before;
+
+        next[node] = UNLISTED;
+        prev[node] = NIL;
     }
-}
\ No newline at end of file
+}
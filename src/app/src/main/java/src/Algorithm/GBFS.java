@@ -13,120 +13,73 @@ public class GBFS extends Algorithm
     @Override
     public List<int[]> solve(String heuristic)
     {
-        if(heuristic.equals("Blocking")) return solveBlockingCars();
-        else if(heuristic.equals("Manhattan")) return solveManhattanDistance();
-        else throw new IllegalArgumentException("Invalid heuristic: " + heuristic);
+        long startTime = startTiming();
+        return search(heuristicFor(heuristic), startTime);
     }
 
-    private List<int[]> solveBlockingCars() 
+    /**
+     * Run Greedy Best First Search with the given heuristic
+     * 
+     * @param heuristic Heuristic evaluated for every generated position
+     * @param startTime Time the solve started, before the heuristic was built
+     * @return A list of moves to solve the puzzle, empty if no solution was found
+     */
+    private List<int[]> search(Heuristic heuristic, long startTime) 
     {
-        long startTime = startTiming();
+        Board curBoard = initialBoard.copy();
+        int[] moveBuffer = new int[initialBoard.getMaxMoves()];
         
-        PriorityQueue<State> queue = new PriorityQueue<>(Comparator.comparingInt(s -> s.getHValue()));
-        List<int[]> initialMoves = new ArrayList<>();
+        BucketQueue<State> queue = new BucketQueue<>();
         
-        int initialHValue = State.calculateBlockingCarHeuristic(initialBoard);
+        int initialHValue = heuristic.calculate(initialBoard);
         
         addToVisited(initialBoard);
-        queue.add(new State(initialBoard, initialMoves, initialHValue));
+        State initialState = new State(initialBoard.getPositions(), initialHValue);
+        if (initialHValue != State.INVALID) queue.add(initialState, initialState.getHValue(), initialState.getGValue());
         
         while (!queue.isEmpty())
         {
             State curState = queue.poll();
-            Board curBoard = curState.getBoard();
-            List<Car> cars = curBoard.getCars();
-            List<int[]> curMoves = curState.getMoves();
+            curBoard.setPositions(curState.getPositions());
             incrementNodesExplored();
 
             if (curBoard.isSolved())
             {
                 endTiming(startTime);
-                return curMoves;
+                return curState.getMoves();
             }
             
             // Add a maximum cost limit like in A*
             int maxCost = curBoard.getRows() * curBoard.getCols() * 50;
-            if (curMoves.size() > maxCost) continue;
+            if (curState.getGValue() > maxCost) continue;
             
-            for (int i = 0; i < cars.size(); i++)
+            int moveCount = curBoard.generateMoves(moveBuffer);
+            for (int m = 0; m < moveCount; m++)
             {
-                List<Integer> validMoves = curBoard.getValidMoves(i);
-                for(Integer moveAmount : validMoves)
-                {
-                    Board newBoard = curBoard.copy();
-                    newBoard = newBoard.applyMove(i, moveAmount);
-                    
-                    if (!hasBeenVisited(newBoard))
-                    {
-                        addToVisited(newBoard);
-                        
-                        List<int[]> newMoves = new ArrayList<>(curMoves);
-                        newMoves.add(new int[]{i, moveAmount});
-                        
-                        int hValue = State.calculateBlockingCarHeuristic(newBoard);
-                        queue.add(new State(newBoard, newMoves, hValue));
-                    }
-                }
-            }
-        }
+                if (MovePruning.isRedundant(curBoard, curState.getLastMove(), moveBuffer[m])) continue;
 
-        endTiming(startTime);
-        return new ArrayList<>();
-    }
+                int i = Board.moveCar(moveBuffer[m]);
+                int moveAmount = Board.moveAmount(moveBuffer[m]);
 
-    private List<int[]> solveManhattanDistance() 
-    {
-        long startTime = startTiming();
-        
-        PriorityQueue<State> queue = new PriorityQueue<>(Comparator.comparingInt(s -> s.getHValue()));
-        List<int[]> initialMoves = new ArrayList<>();
-        
-        int initialHValue = State.calculateManhattanDistanceHeuristic(initialBoard);
-        
-        addToVisited(initialBoard);
-        queue.add(new State(initialBoard, initialMoves, initialHValue));
-        
-        while (!queue.isEmpty())
-        {
-            State curState = queue.poll();
-            Board curBoard = curState.getBoard();
-            List<Car> cars = curBoard.getCars();
-            List<int[]> curMoves = curState.getMoves();
-            incrementNodesExplored();
-
-            if (curBoard.isSolved())
-            {
-                endTiming(startTime);
-                return curMoves;
-            }
-            
-            // Add a maximum cost limit like in A*
-            int maxCost = curBoard.getRows() * curBoard.getCols() * 50;
-            if (curMoves.size() > maxCost) continue;
-            
-            for (int i = 0; i < cars.size(); i++)
-            {
-                List<Integer> validMoves = curBoard.getValidMoves(i);
-                for (Integer moveAmount : validMoves)
+                // Try the move in place and only store the positions if they are new
+                curBoard.doMove(i, moveAmount);
+                
+                if (!hasBeenVisited(curBoard))
                 {
-                    Board newBoard = curBoard.copy();
-                    newBoard = newBoard.applyMove(i, moveAmount);
+                    addToVisited(curBoard);
                     
-                    if (!hasBeenVisited(newBoard))
+                    int hValue = heuristic.delta(curBoard, curState.getHValue(), moveBuffer[m]);
+                    if (hValue != State.INVALID)
                     {
-                        addToVisited(newBoard);
-                        
-                        List<int[]> newMoves = new ArrayList<>(curMoves);
-                        newMoves.add(new int[]{i, moveAmount});
-                        
-                        int hValue = State.calculateManhattanDistanceHeuristic(newBoard);
-                        queue.add(new State(newBoard, newMoves, hValue));
+                        State next = curState.addMove(i, moveAmount, curBoard.getPositions(), hValue);
+                        queue.add(next, next.getHValue(), next.getGValue());
                     }
                 }
+                curBoard.undoMove(i, moveAmount);
             }
         }
 
         endTiming(startTime);
         return new ArrayList<>();
     }
-}
\ No newline at end of file
+}
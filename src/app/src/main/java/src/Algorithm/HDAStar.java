@@ -0,0 +1,298 @@
+package src.Algorithm;
+
+import src.ADT.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Implementation of Hash Distributed A* (HDA*) for the Rush Hour puzzle.
+ * Every position is owned by one worker thread, chosen from its Zobrist hash. Each
+ * worker runs A* on its own open list and closed map, and sends every generated
+ * position it does not own to the owner's lock-free mailbox.
+ *
+ * A solution is only accepted once no worker holds a position with a lower f and no
+ * position is still in a mailbox, so the result is as short as the one of AStar.
+ * Idle workers park until a position is sent to them or the search ends.
+ */
+public class HDAStar extends Algorithm
+{
+    // Constants
+    private static final long IDLE_PARK_NANOS = 10_000_000L; // Longest idle wait between checks of the termination condition
+
+    // Attributes
+    private final int threads;                    // Number of worker threads
+    private Heuristic heuristic;                  // Heuristic of the current search
+    private Worker[] workers;                     // Workers of the current search
+    private AtomicLong pending;                   // Active workers plus positions sent but not yet received
+    private AtomicReference<State> incumbent;     // Shortest solution found so far, null if none
+    private volatile Throwable failure;           // First error thrown by a worker, stops the others
+    private int maxCost;                          // Largest g expanded, same limit as AStar
+
+    public HDAStar(Board board)
+    {
+        this(board, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for the HDAStar class with a chosen number of threads
+     *
+     * @param board The initial board state
+     * @param threads Number of worker threads, at least 1
+     */
+    public HDAStar(Board board, int threads)
+    {
+        super(board);
+        if (threads < 1) throw new IllegalArgumentException("Invalid thread count: " + threads);
+        this.threads = threads;
+    }
+
+    @Override
+    public List<int[]> solve(String heuristic)
+    {
+        long startTime = startTiming();
+        return search(heuristicFor(heuristic), startTime);
+    }
+
+    /**
+     * Run HDA* with the given heuristic
+     *
+     * @param heuristic Heuristic evaluated for every generated position
+     * @param startTime Time the solve started, before the heuristic was built
+     * @return A list of moves to solve the puzzle, empty if no solution was found
+     */
+    private List<int[]> search(Heuristic heuristic, long startTime)
+    {
+        this.heuristic = heuristic;
+        this.maxCost   = initialBoard.getRows() * initialBoard.getCols() * 50;
+        this.pending   = new AtomicLong(threads);
+        this.incumbent = new AtomicReference<>(null);
+        this.failure   = null;
+        this.workers   = new Worker[threads];
+        for (int w = 0; w < threads; w++) workers[w] = new Worker();
+
+        Thread[] pool = new Thread[threads];
+        for (int w = 0; w < threads; w++)
+        {
+            pool[w] = new Thread(workers[w], "hda-worker-" + w);
+            workers[w].thread = pool[w];
+        }
+
+        State initialState = new State(initialBoard.getPositions(), heuristic.calculate(initialBoard));
+        if (initialState.getHValue() != State.INVALID) workers[owner(initialBoard)].push(initialState);
+
+        for (Thread thread : pool) thread.start();
+
+        try
+        {
+            for (Thread thread : pool) thread.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            for (Thread thread : pool) thread.interrupt();
+        }
+
+        for (Worker worker : workers) nodesExplored += worker.expanded;
+        endTiming(startTime);
+
+        if (failure instanceof RuntimeException e) throw e;
+        if (failure instanceof Error e) throw e;
+
+        State solution = incumbent.get();
+        return (solution == null) ? new ArrayList<>() : solution.getMoves();
+    }
+
+    /**
+     * Get the worker that owns a position
+     *
+     * @param board The board holding the position
+     * @return Index of the owning worker
+     */
+    private int owner(Board board)
+    {
+        // High bits only, the closed maps index their slots with the low ones
+        return (int) ((board.getZobristHash() >>> 33) % threads);
+    }
+
+    /**
+     * Unpark every worker, so that idle ones notice the end of the search
+     */
+    private void wakeAll()
+    {
+        for (Worker worker : workers) LockSupport.unpark(worker.thread);
+    }
+
+    /**
+     * Replace the incumbent if the solution is shorter
+     *
+     * @param solution A solved state
+     */
+    private void offerSolution(State solution)
+    {
+        State best = incumbent.get();
+        while ((best == null || solution.getGValue() < best.getGValue())
+               && !incumbent.compareAndSet(best, solution))
+            best = incumbent.get();
+    }
+
+    /**
+     * Get the cost of the incumbent
+     *
+     * @return Number of moves of the shortest solution found, Integer.MAX_VALUE if none
+     */
+    private int incumbentCost()
+    {
+        State best = incumbent.get();
+        return (best == null) ? Integer.MAX_VALUE : best.getGValue();
+    }
+
+    /**
+     * A worker thread running A* on the positions it owns
+     */
+    private final class Worker implements Runnable
+    {
+        private final ConcurrentLinkedQueue<State> mailbox = new ConcurrentLinkedQueue<>();
+        private final BucketQueue<State> open = new BucketQueue<>();
+        private final Board board = initialBoard.copy();
+        private final PositionMap bestCosts = new PositionMap(initialBoard); // Smallest g seen per owned position
+        private final int[] moveBuffer = new int[initialBoard.getMaxMoves()];
+        private Thread thread;           // Thread running this worker, set before any worker starts
+        private boolean active = true;   // Whether this worker is counted in pending
+        private int expanded = 0;        // Number of positions expanded by this worker
+
+        /**
+         * Send a position to this worker from another thread
+         *
+         * @param state The position to send
+         */
+        void push(State state)
+        {
+            pending.incrementAndGet();
+            mailbox.offer(state);
+            LockSupport.unpark(thread);
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                search();
+            }
+            catch (RuntimeException | Error e)
+            {
+                if (failure == null) failure = e;
+                wakeAll();
+            }
+        }
+
+        /**
+         * Expand owned positions until every worker is idle and no position is in a mailbox
+         */
+        private void search()
+        {
+            while (failure == null && !Thread.currentThread().isInterrupted())
+            {
+                receive();
+
+                State curState = open.poll();
+                if (curState != null && curState.getFValue() < incumbentCost())
+                {
+                    expand(curState);
+                    continue;
+                }
+
+                // Nothing left below the incumbent, what is still open can never improve it
+                while (open.poll() != null) { }
+
+                if (active)
+                {
+                    active = false;
+                    if (pending.decrementAndGet() == 0) wakeAll();
+                }
+                if (pending.get() == 0) return;
+
+                // A push unparks this thread, a permit given before parking makes park return at once
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+
+        /**
+         * Move every position of the mailbox into the open list
+         */
+        private void receive()
+        {
+            State state;
+            while ((state = mailbox.poll()) != null)
+            {
+                // The message stops being pending, an idle worker becomes active in its place
+                if (active) pending.decrementAndGet();
+                else active = true;
+
+                board.setPositions(state.getPositions());
+                insert(state);
+            }
+        }
+
+        /**
+         * Add an owned position to the open list unless it was already reached as cheaply
+         *
+         * @param state The position, the board must hold it
+         */
+        private void insert(State state)
+        {
+            int known = bestCosts.get(board);
+            if (known != PositionMap.MISSING && known <= state.getGValue()) return;
+
+            bestCosts.put(board, state.getGValue());
+            open.add(state, state.getFValue(), state.getHValue());
+        }
+
+        /**
+         * Expand a position, keeping the successors this worker owns and sending the others
+         *
+         * @param curState The position to expand
+         */
+        private void expand(State curState)
+        {
+            board.setPositions(curState.getPositions());
+
+            // Skip entries that were reached more cheaply after they were queued
+            if (bestCosts.get(board) < curState.getGValue()) return;
+
+            expanded++;
+            if (board.isSolved())
+            {
+                offerSolution(curState);
+                return;
+            }
+            if (curState.getGValue() > maxCost) return;
+
+            int moveCount = board.generateMoves(moveBuffer);
+            for (int m = 0; m < moveCount; m++)
+            {
+                if (MovePruning.isRedundant(board, curState.getLastMove(), moveBuffer[m])) continue;
+
+                int i = Board.moveCar(moveBuffer[m]);
+                int moveAmount = Board.moveAmount(moveBuffer[m]);
+
+                board.doMove(i, moveAmount);
+
+                // Positions that cannot reach the exit are neither queued nor sent
+                int hValue = heuristic.delta(board, curState.getHValue(), moveBuffer[m]);
+                if (hValue != State.INVALID)
+                {
+                    State next = curState.addMove(i, moveAmount, board.getPositions(), hValue);
+                    int target = owner(board);
+                    if (workers[target] == this) insert(next);
+                    else workers[target].push(next);
+                }
+
+                board.undoMove(i, moveAmount);
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package src.Algorithm;
+
+import src.ADT.*;
+import java.util.*;
+
+/**
+ * Implementation of Iterative Deepening A* (IDA*) for the Rush Hour puzzle.
+ * Runs depth-first searches bounded by f = g + h, raising the bound to the smallest
+ * f that exceeded it until a solution is found. Only the current path is kept, on a
+ * single board that is moved in place, so memory grows with the depth only.
+ * A fixed-size transposition table skips positions that were already reached more
+ * cheaply or whose subtree is known to exceed the bound.
+ */
+public class IDAStar extends Algorithm
+{
+    // Constants
+    private static final int FOUND = -1; // Returned by the depth-first search when the board is solved
+
+    // Attributes
+    private Board curBoard;                   // Working board, holds the position at the end of the path
+    private Heuristic heuristic;              // Heuristic of the current search
+    private int[][] moveBuffers;              // Move buffer for each depth
+    private int[] path;                       // Packed moves of the current path
+    private int pathLength;                   // Number of moves of the solution path, set when FOUND is returned
+    private int maxCost;                      // Depth limit of the search
+
+    public IDAStar(Board board)
+    {
+        this(board, TranspositionTable.DEFAULT_BUDGET);
+    }
+
+    /**
+     * Constructor for the IDAStar class with a chosen transposition table size.
+     * Below the number of positions a search needs to remember, the running time does not
+     * degrade gently: on config-7 with the Blocking heuristic, 2MB still solves in about 2s
+     * against 1.4s with the 32MB default, but 1MB does not finish within 120s.
+     *
+     * @param board The initial board state
+     * @param memoryBytes Memory budget of the transposition table in bytes, 0 to search without one
+     */
+    public IDAStar(Board board, long memoryBytes)
+    {
+        super(board);
+        setTranspositionBudget(memoryBytes);
+    }
+
+    @Override
+    public List<int[]> solve(String heuristic)
+    {
+        long startTime = startTiming();
+        return search(heuristicFor(heuristic), startTime);
+    }
+
+    /**
+     * Run IDA* with the given heuristic
+     *
+     * @param heuristic Heuristic evaluated at every node
+     * @param startTime Time the solve started, before the heuristic was built
+     * @return A list of moves to solve the puzzle, empty if no solution was found
+     */
+    private List<int[]> search(Heuristic heuristic, long startTime)
+    {
+        this.curBoard    = initialBoard.copy();
+        this.heuristic   = heuristic;
+        this.maxCost     = initialBoard.getRows() * initialBoard.getCols() * 50;
+        this.moveBuffers = new int[maxCost + 1][];
+        this.path        = new int[maxCost + 1];
+
+        if (transpositions != null) transpositions.clear();
+
+        int rootH = heuristic.calculate(curBoard);
+        int bound = rootH;
+
+        while (bound != Integer.MAX_VALUE)
+        {
+            int result = depthFirst(0, bound, MovePruning.NO_MOVE, rootH);
+            if (result == FOUND)
+            {
+                endTiming(startTime);
+                return getPathMoves();
+            }
+            bound = result;
+        }
+
+        endTiming(startTime);
+        return new ArrayList<>();
+    }
+
+    /**
+     * Depth-first search below the current position
+     *
+     * @param g Number of moves made so far
+     * @param bound Largest f value allowed in this iteration
+     * @param lastMove Packed move that reached the current position, MovePruning.NO_MOVE at the root
+     * @param h Heuristic value of the current position
+     * @return FOUND if the board was solved, otherwise the smallest f value above the bound
+     */
+    private int depthFirst(int g, int bound, int lastMove, int h)
+    {
+        int f = g + h;
+        if (f > bound) return f;
+
+        int known = probeTransposition(curBoard, g, bound);
+        if (known != TranspositionTable.MISS) return known;
+
+        incrementNodesExplored();
+        if (curBoard.isSolved())
+        {
+            pathLength = g;
+            return FOUND;
+        }
+        if (g >= maxCost) return Integer.MAX_VALUE;
+
+        if (moveBuffers[g] == null) moveBuffers[g] = new int[curBoard.getMaxMoves()];
+        int[] moves = moveBuffers[g];
+        int moveCount = curBoard.generateMoves(moves);
+
+        int minExceeded = Integer.MAX_VALUE;
+        for (int m = 0; m < moveCount; m++)
+        {
+            int i = Board.moveCar(moves[m]);
+            int moveAmount = Board.moveAmount(moves[m]);
+
+            // Moving the same car twice in a row is never shorter than moving it once,
+            // this also prunes every immediate reversal
+            if (lastMove != MovePruning.NO_MOVE && i == Board.moveCar(lastMove)) continue;
+            if (MovePruning.isRedundant(curBoard, lastMove, moves[m])) continue;
+
+            curBoard.doMove(i, moveAmount);
+            path[g] = moves[m];
+
+            int result = depthFirst(g + 1, bound, moves[m], heuristic.delta(curBoard, h, moves[m]));
+            if (result == FOUND) return FOUND;
+
+            curBoard.undoMove(i, moveAmount);
+            if (result < minExceeded) minExceeded = result;
+        }
+
+        storeTransposition(curBoard, g, minExceeded);
+        return minExceeded;
+    }
+
+    /**
+     * Convert the solution path into the move list format used by the other solvers
+     *
+     * @return List of {car index, move amount} pairs
+     */
+    private List<int[]> getPathMoves()
+    {
+        List<int[]> moves = new ArrayList<>(pathLength);
+        for (int d = 0; d < pathLength; d++)
+            moves.add(new int[]{Board.moveCar(path[d]), Board.moveAmount(path[d])});
+
+        return moves;
+    }
+}
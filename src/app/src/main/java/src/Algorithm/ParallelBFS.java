@@ -0,0 +1,166 @@
+package src.Algorithm;
+
+import src.ADT.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Level-synchronous parallel breadth-first search for the Rush Hour puzzle.
+ * Every move costs 1, so expanding the positions one depth layer at a time gives the
+ * same optimal solutions as UCS. Each layer is cut into chunks that are expanded on a
+ * ForkJoinPool, and new positions are deduplicated in a striped visited set.
+ * The search stops at the first layer that contains a solved position.
+ */
+public class ParallelBFS extends Algorithm
+{
+    // Constants
+    private static final int CHUNK_SIZE = 256; // Frontier positions expanded by one task
+
+    // Attributes
+    private final int threads;                   // Parallelism of the pool
+    private StripedVisitedSet visited;           // Positions reached so far, shared by every task
+    private AtomicReference<State> solution;     // First solved position found in the current layer
+    private AtomicInteger expanded;              // Positions expanded by every task so far
+
+    public ParallelBFS(Board board)
+    {
+        this(board, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for the ParallelBFS class with a chosen number of threads
+     *
+     * @param board The initial board state
+     * @param threads Number of worker threads, at least 1
+     */
+    public ParallelBFS(Board board, int threads)
+    {
+        super(board);
+        if (threads < 1) throw new IllegalArgumentException("Invalid thread count: " + threads);
+        this.threads = threads;
+    }
+
+    @Override
+    public List<int[]> solve(String heuristic)
+    {
+        // Breadth-first search doesn't use heuristics, ignore the parameter
+        return solveBFS();
+    }
+
+    private List<int[]> solveBFS()
+    {
+        long startTime = startTiming();
+
+        this.visited  = new StripedVisitedSet(initialBoard, threads);
+        this.solution = new AtomicReference<>(null);
+        this.expanded = new AtomicInteger(0);
+
+        State initialState = new State(initialBoard.getPositions());
+        visited.add(initialBoard);
+        if (initialBoard.isSolved())
+        {
+            endTiming(startTime);
+            return initialState.getMoves();
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try
+        {
+            List<State> frontier = new ArrayList<>();
+            frontier.add(initialState);
+
+            while (!frontier.isEmpty() && solution.get() == null)
+                frontier = expandLayer(pool, frontier);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException("Parallel search failed", e.getCause());
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+
+        nodesExplored += expanded.get();
+        endTiming(startTime);
+
+        State found = solution.get();
+        return (found == null) ? new ArrayList<>() : found.getMoves();
+    }
+
+    /**
+     * Expand every position of a layer in parallel
+     *
+     * @param pool The pool running the chunks
+     * @param frontier Positions of the current layer
+     * @return New positions of the next layer
+     */
+    private List<State> expandLayer(ForkJoinPool pool, List<State> frontier)
+        throws InterruptedException, ExecutionException
+    {
+        List<Callable<List<State>>> tasks = new ArrayList<>();
+        for (int from = 0; from < frontier.size(); from += CHUNK_SIZE)
+        {
+            List<State> chunk = frontier.subList(from, Math.min(from + CHUNK_SIZE, frontier.size()));
+            tasks.add(() -> expandChunk(chunk));
+        }
+
+        List<State> next = new ArrayList<>();
+        for (Future<List<State>> result : pool.invokeAll(tasks))
+            next.addAll(result.get());
+
+        return next;
+    }
+
+    /**
+     * Expand a chunk of a layer on the calling thread
+     *
+     * @param chunk Positions to expand
+     * @return Successors that were not reached before
+     */
+    private List<State> expandChunk(List<State> chunk)
+    {
+        Board board = initialBoard.copy();
+        int[] moveBuffer = new int[initialBoard.getMaxMoves()];
+        List<State> next = new ArrayList<>();
+        int count = 0;
+
+        for (State curState : chunk)
+        {
+            // Another task already found a solution in the next layer, which is as short as any
+            if (solution.get() != null) break;
+
+            board.setPositions(curState.getPositions());
+            count++;
+
+            int moveCount = board.generateMoves(moveBuffer);
+            for (int m = 0; m < moveCount; m++)
+            {
+                if (MovePruning.isRedundant(board, curState.getLastMove(), moveBuffer[m])) continue;
+
+                int i = Board.moveCar(moveBuffer[m]);
+                int moveAmount = Board.moveAmount(moveBuffer[m]);
+
+                // Try the move in place and only store the positions if they are new
+                board.doMove(i, moveAmount);
+
+                if (visited.add(board))
+                {
+                    State nextState = curState.addMove(i, moveAmount, board.getPositions(), 0);
+                    if (board.isSolved()) solution.compareAndSet(null, nextState);
+                    next.add(nextState);
+                }
+                board.undoMove(i, moveAmount);
+            }
+        }
+
+        expanded.addAndGet(count);
+        return next;
+    }
+}
@@ -0,0 +1,89 @@
+package src.Algorithm;
+
+import src.ADT.*;
+import java.util.*;
+
+/**
+ * Solver that looks positions up in a DistanceTable of the whole puzzle layout.
+ * Once the table is built, a solution is found by always moving to a position one
+ * move closer to the goal, so each solve takes time proportional to its length.
+ * A table can be passed in to share one backward search between many starting boards.
+ * Layouts too large for a table (see DistanceTable.canBuild) are refused on construction.
+ */
+public class Retrograde extends Algorithm
+{
+    // Attributes
+    private DistanceTable table; // Distances of the layout, built on the first solve if not given
+
+    public Retrograde(Board board)
+    {
+        super(board);
+        if (!DistanceTable.canBuild(board)) throw new IllegalArgumentException("Board too large for a distance table");
+        this.table = null;
+    }
+
+    /**
+     * Constructor for the Retrograde class with a table built earlier
+     *
+     * @param board The initial board state
+     * @param table Distance table of the board's layout
+     */
+    public Retrograde(Board board, DistanceTable table)
+    {
+        super(board);
+        if (!table.covers(board)) throw new IllegalArgumentException("Distance table of another layout");
+        this.table = table;
+    }
+
+    public DistanceTable getTable() { return this.table; }
+
+    @Override
+    public List<int[]> solve(String heuristic)
+    {
+        // The table gives exact distances, ignore the parameter
+        return solveRetrograde();
+    }
+
+    private List<int[]> solveRetrograde()
+    {
+        long startTime = startTiming();
+
+        if (table == null) table = new DistanceTable(initialBoard);
+
+        Board curBoard = initialBoard.copy();
+        int[] moveBuffer = new int[initialBoard.getMaxMoves()];
+        List<int[]> moves = new ArrayList<>();
+
+        int distance = table.getDistance(curBoard);
+        if (distance == DistanceTable.UNREACHABLE)
+        {
+            endTiming(startTime);
+            return moves;
+        }
+
+        while (distance > 0)
+        {
+            incrementNodesExplored();
+
+            int moveCount = curBoard.generateMoves(moveBuffer);
+            for (int m = 0; m < moveCount; m++)
+            {
+                int i = Board.moveCar(moveBuffer[m]);
+                int moveAmount = Board.moveAmount(moveBuffer[m]);
+
+                // Keep the first move that gets one step closer, some neighbour always does
+                curBoard.doMove(i, moveAmount);
+                if (table.getDistance(curBoard) == distance - 1)
+                {
+                    moves.add(new int[]{i, moveAmount});
+                    break;
+                }
+                curBoard.undoMove(i, moveAmount);
+            }
+            distance--;
+        }
+
+        endTiming(startTime);
+        return moves;
+    }
+}
@@ -0,0 +1,335 @@
+package src.Algorithm;
+
+import src.ADT.*;
+import java.util.*;
+
+/**
+ * Simplified Memory-bounded A* (SMA*) for the Rush Hour puzzle.
+ * The search tree is kept in memory like in A*, but never with more than a fixed number
+ * of nodes. When it is full, the leaf with the highest f value (the shallowest one among
+ * equals) is dropped, and its parent remembers the smallest f value it has forgotten.
+ * The f value of a node is backed up to the smallest f of its children, and a node with
+ * forgotten children stays in the open list with the f of the best of them, so they are
+ * generated again as soon as they become the most promising ones.
+ *
+ * A child inherits the f of its parent when that is larger (pathmax), so subtrees that are
+ * forgotten and generated again keep the values learned the first time. A position is
+ * only generated again while the copy in memory was reached in more moves, or once that
+ * copy has been dropped.
+ *
+ * The solution is optimal whenever the optimal path fits in the budget. If not, the best
+ * solution that fits is returned, or none at all. Budgets barely larger than the path make
+ * the search drop and regenerate the same nodes many times, so they trade memory for a
+ * lot of time.
+ */
+public class SMAStar extends Algorithm
+{
+    // Constants
+    public static final int DEFAULT_BUDGET = 1_000_000; // Node budget of the default constructor
+
+    private static final int INFINITE = Integer.MAX_VALUE; // f value of subtrees with no reachable solution
+
+    /**
+     * Node of the search tree in memory
+     */
+    private static final class Node
+    {
+        final byte[] positions;                        // Car offsets of the position
+        final Node parent;                             // Node this one was generated from, null for the root
+        final int move;                                // Packed move from the parent, MovePruning.NO_MOVE for the root
+        final int g;                                   // Number of moves from the initial board
+        final int h;                                   // Heuristic value of the position
+        final long hash;                               // Zobrist hash of the position
+        final long order;                              // Creation number, keeps nodes with equal keys apart
+        final List<Node> children = new ArrayList<>(); // Children in memory
+        int f;                                         // Backed-up f value
+        int forgotten = INFINITE;                      // Smallest f of the children dropped since they were generated
+        boolean queued;                                // Whether the node is in the open list
+
+        Node(Board board, Node parent, int move, int g, int h, int f, long order)
+        {
+            this.positions = board.getPositions();
+            this.parent    = parent;
+            this.move      = move;
+            this.g         = g;
+            this.h         = h;
+            this.hash      = board.getZobristHash();
+            this.f         = f;
+            this.order     = order;
+        }
+
+        /**
+         * Get the f value the node is queued with
+         *
+         * @return f for a leaf, the best forgotten f for a node with children
+         */
+        int key() { return children.isEmpty() ? f : forgotten; }
+    }
+
+    // Attributes
+    private final int budget;   // Largest number of nodes in memory
+    private TreeSet<Node> open; // Leaves and nodes with forgotten children, lowest key and deepest first
+    private PositionMap bestG;  // Smallest g of the copies of each position in memory
+    private Board curBoard;     // Working board
+    private int[] moveBuffer;   // Reusable buffer for generated moves
+    private int nodeCount;      // Number of nodes in memory
+    private long created;       // Number of nodes created, for their order
+
+    public SMAStar(Board board)
+    {
+        this(board, DEFAULT_BUDGET);
+    }
+
+    /**
+     * Constructor for the SMAStar class with a chosen node budget
+     *
+     * @param board The initial board state
+     * @param budget Largest number of nodes kept in memory, at least 2
+     */
+    public SMAStar(Board board, int budget)
+    {
+        super(board);
+        if (budget < 2) throw new IllegalArgumentException("Invalid node budget: " + budget);
+        this.budget = budget;
+    }
+
+    public int getBudget() { return this.budget; }
+
+    @Override
+    public List<int[]> solve(String heuristic)
+    {
+        long startTime = startTiming();
+        return search(heuristicFor(heuristic), startTime);
+    }
+
+    /**
+     * Run SMA* with the given heuristic
+     *
+     * @param heuristic Heuristic evaluated for every generated position
+     * @param startTime Time the solve started, before the heuristic was built
+     * @return A list of moves to solve the puzzle, empty if no solution fits in the budget
+     */
+    private List<int[]> search(Heuristic heuristic, long startTime)
+    {
+        int maxCost = initialBoard.getRows() * initialBoard.getCols() * 50;
+
+        this.curBoard   = initialBoard.copy();
+        this.moveBuffer = new int[initialBoard.getMaxMoves()];
+        this.nodeCount  = 0;
+        this.created    = 0;
+        this.bestG      = new PositionMap(initialBoard);
+        this.open       = new TreeSet<>((a, b) -> {
+            if (a.key() != b.key()) return Integer.compare(a.key(), b.key());
+            if (a.g != b.g) return Integer.compare(b.g, a.g);
+            return Long.compare(a.order, b.order);
+        });
+
+        int rootH = heuristic.calculate(initialBoard);
+        bestG.put(initialBoard, 0);
+        enqueue(newNode(initialBoard, null, MovePruning.NO_MOVE, 0, rootH, (rootH == State.INVALID) ? INFINITE : rootH));
+
+        while (!open.isEmpty() && open.first().key() != INFINITE)
+        {
+            Node node = open.first();
+            dequeue(node);
+            curBoard.setPositions(node.positions);
+            incrementNodesExplored();
+
+            if (curBoard.isSolved())
+            {
+                endTiming(startTime);
+                return movesTo(node);
+            }
+
+            // A leaf gets all its children, a node with forgotten children only the missing ones
+            Node best = (node.g < maxCost) ? expand(node, heuristic) : null;
+            node.forgotten = INFINITE;
+
+            backUp(node);
+            prune(best);
+        }
+
+        endTiming(startTime);
+        return new ArrayList<>();
+    }
+
+    /**
+     * Generate the children of a node that are not in memory
+     *
+     * @param node The node to expand, on curBoard
+     * @param heuristic Heuristic evaluated for every new child
+     * @return The best new child, null if there is none
+     */
+    private Node expand(Node node, Heuristic heuristic)
+    {
+        Node best = null;
+        int moveCount = curBoard.generateMoves(moveBuffer);
+
+        for (int m = 0; m < moveCount; m++)
+        {
+            if (hasChild(node, moveBuffer[m]) || MovePruning.isRedundant(curBoard, node.move, moveBuffer[m])) continue;
+
+            int i = Board.moveCar(moveBuffer[m]);
+            int moveAmount = Board.moveAmount(moveBuffer[m]);
+
+            curBoard.doMove(i, moveAmount);
+
+            // Skip copies of a position in memory that was reached in as few moves, and moves back along the path
+            int known = bestG.get(curBoard);
+            boolean repeated = (known != PositionMap.MISSING && known <= node.g + 1) || onPath(node, curBoard);
+
+            int h = repeated ? State.INVALID : heuristic.delta(curBoard, node.h, moveBuffer[m]);
+            if (h != State.INVALID)
+            {
+                bestG.put(curBoard, node.g + 1);
+                // Pathmax: a child is never more promising than its parent was found to be
+                Node child = newNode(curBoard, node, moveBuffer[m], node.g + 1, h, Math.max(node.f, node.g + 1 + h));
+                node.children.add(child);
+                enqueue(child);
+                if (best == null || open.comparator().compare(child, best) < 0) best = child;
+            }
+            curBoard.undoMove(i, moveAmount);
+        }
+        return best;
+    }
+
+    /**
+     * Drop the worst leaves until the tree fits in the budget
+     *
+     * @param keep Best new child of the node just expanded, only dropped if nothing else can be,
+     *             in which case the path to it does not fit in the budget; may be null
+     */
+    private void prune(Node keep)
+    {
+        while (nodeCount > budget)
+        {
+            Node worst = null;
+            for (Iterator<Node> it = open.descendingIterator(); it.hasNext(); )
+            {
+                Node candidate = it.next();
+                if (candidate != keep && candidate.parent != null && candidate.children.isEmpty())
+                {
+                    worst = candidate;
+                    break;
+                }
+            }
+
+            boolean pathTooLong = (worst == null);
+            if (pathTooLong)
+            {
+                if (keep == null) return;
+                worst = keep;
+            }
+
+            dequeue(worst);
+            nodeCount--;
+
+            curBoard.setPositions(worst.positions);
+            if (bestG.get(curBoard) == worst.g) bestG.remove(curBoard);
+
+            // When the path alone fills the budget, no child of its last node can ever fit
+            Node parent = worst.parent;
+            dequeue(parent);
+            parent.children.remove(worst);
+            parent.forgotten = pathTooLong ? INFINITE : Math.min(parent.forgotten, worst.f);
+            backUp(parent);
+        }
+    }
+
+    /**
+     * Recompute the f value of a node from its children and forgotten ones, then of its ancestors,
+     * and queue every node whose key changed again
+     *
+     * @param node The node whose children changed
+     */
+    private void backUp(Node node)
+    {
+        while (node != null)
+        {
+            int least = node.forgotten;
+            for (Node child : node.children) least = Math.min(least, child.f);
+
+            int oldF = node.f;
+            dequeue(node);
+            node.f = Math.max(oldF, least);
+            enqueue(node);
+
+            if (node.f == oldF) return;
+            node = node.parent;
+        }
+    }
+
+    /**
+     * Create a node and count it against the budget
+     *
+     * @return The new node
+     */
+    private Node newNode(Board board, Node parent, int move, int g, int h, int f)
+    {
+        nodeCount++;
+        return new Node(board, parent, move, g, h, f, created++);
+    }
+
+    /**
+     * Put a node in the open list if it is a leaf or has forgotten children
+     *
+     * @param node The node, not in the open list
+     */
+    private void enqueue(Node node)
+    {
+        if (!node.children.isEmpty() && node.forgotten == INFINITE) return;
+        open.add(node);
+        node.queued = true;
+    }
+
+    /**
+     * Take a node out of the open list, before anything its key depends on changes
+     *
+     * @param node The node
+     */
+    private void dequeue(Node node)
+    {
+        if (!node.queued) return;
+        open.remove(node);
+        node.queued = false;
+    }
+
+    /**
+     * Check whether a position is on the path from the root to a node
+     *
+     * @param node Last node of the path
+     * @param board The board holding the position
+     * @return True if the node or one of its ancestors has the position
+     */
+    private static boolean onPath(Node node, Board board)
+    {
+        long hash = board.getZobristHash();
+        for (Node cur = node; cur != null; cur = cur.parent)
+            if (cur.hash == hash && Arrays.equals(cur.positions, board.getPositions())) return true;
+
+        return false;
+    }
+
+    private static boolean hasChild(Node node, int move)
+    {
+        for (Node child : node.children)
+            if (child.move == move) return true;
+
+        return false;
+    }
+
+    /**
+     * Rebuild the moves from the root to a node
+     *
+     * @param node The solved node
+     * @return The list of moves as [carIndex, moveAmount]
+     */
+    private static List<int[]> movesTo(Node node)
+    {
+        int[][] moves = new int[node.g][];
+        for (Node cur = node; cur.parent != null; cur = cur.parent)
+            moves[cur.g - 1] = new int[]{Board.moveCar(cur.move), Board.moveAmount(cur.move)};
+
+        return new ArrayList<>(Arrays.asList(moves));
+    }
+}
@@ -20,19 +20,19 @@ public class UCS extends Algorithm
     private List<int[]> solveUCS() 
     {
         long startTime = startTiming();
+        Board curBoard = initialBoard.copy();
+        int[] moveBuffer = new int[initialBoard.getMaxMoves()];
         
-        PriorityQueue<State> queue = new PriorityQueue<>(Comparator.comparingInt(s -> s.getGValue()));
-        List<int[]> initialMoves = new ArrayList<>();
+        BucketQueue<State> queue = new BucketQueue<>();
         
         // UCS only uses g(n) - the cost from start to current node
-        queue.add(new State(initialBoard, initialMoves));
+        State initialState = new State(initialBoard.getPositions());
+        queue.add(initialState, initialState.getGValue(), 0);
         
         while (!queue.isEmpty())
         {
             State curState = queue.poll();
-            Board curBoard = curState.getBoard();
-            List<Car> pieces = curBoard.getCars();
-            List<int[]> curMoves = curState.getMoves();
+            curBoard.setPositions(curState.getPositions());
             incrementNodesExplored();
 
             if (curBoard.isSolved())
@@ -40,29 +40,30 @@ public class UCS extends Algorithm
                 endTiming(startTime);
 
                 // if (curMoves.size() < 100) return splitMovesToSteps(curMoves);
-                return curMoves;
+                return curState.getMoves();
             }
             
             if (hasBeenVisited(curBoard)) continue;
             addToVisited(curBoard);
             
-            for (int i = 0; i < pieces.size(); i++)
+            int moveCount = curBoard.generateMoves(moveBuffer);
+            for (int m = 0; m < moveCount; m++)
             {
-                List<Integer> validMoves = curBoard.getValidMoves(i);
-                for(Integer moveAmount : validMoves)
+                if (MovePruning.isRedundant(curBoard, curState.getLastMove(), moveBuffer[m])) continue;
+
+                int i = Board.moveCar(moveBuffer[m]);
+                int moveAmount = Board.moveAmount(moveBuffer[m]);
+
+                // Try the move in place and only store the positions if they are new
+                curBoard.doMove(i, moveAmount);
+                
+                if (!hasBeenVisited(curBoard))
                 {
-                    Board newBoard = curBoard.copy();
-                    newBoard = newBoard.applyMove(i, moveAmount);
-                    
-                    if (!hasBeenVisited(newBoard))
-                    {
-                        List<int[]> newMoves = new ArrayList<>(curMoves);
-                        newMoves.add(new int[]{i, moveAmount});
-                        
-                        // UCS: Create new state with updated moves
-                        queue.add(new State(newBoard, newMoves));
-                    }
+                    // UCS: Create new state with updated moves
+                    State next = curState.addMove(i, moveAmount, curBoard.getPositions(), 0);
+                    queue.add(next, next.getGValue(), 0);
                 }
+                curBoard.undoMove(i, moveAmount);
             }
         }
 
@@ -2,15 +2,27 @@ package src.CLI;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Scanner;
 
 import src.ADT.Board;
+import src.ADT.DistanceTable;
+import src.ADT.RelevantCars;
+import src.ADT.TranspositionTable;
 import src.Algorithm.AStar;
 import src.Algorithm.GBFS;
 import src.Algorithm.UCS;
 import src.Algorithm.Algorithm;
 import src.Algorithm.Fringe;
+import src.Algorithm.IDAStar;
+import src.Algorithm.HDAStar;
+import src.Algorithm.ParallelBFS;
+import src.Algorithm.Bidirectional;
+import src.Algorithm.Retrograde;
+import src.Algorithm.ARAStar;
+import src.Algorithm.BeamSearch;
+import src.Algorithm.SMAStar;
 import src.IO.Input;
 import src.IO.Output;
 
@@ -19,6 +31,14 @@ import src.IO.Output;
  */
 public class CLI 
 {
+    // Constants
+    private static final int ALGORITHM_OPTIONS = 12;       // Number of entries in the algorithm menu
+    private static final int HEURISTIC_OPTIONS = 4;        // Number of entries in the heuristic menu
+    private static final int MAX_BUDGET_SECONDS = 600;     // Largest time budget of the anytime solver
+    private static final int MAX_BEAM_WIDTH = 1_000_000;   // Largest beam width of the beam search
+    private static final int MAX_NODE_BUDGET = 50_000_000; // Largest node budget of SMA*
+    private static final int MAX_TABLE_MEGABYTES = 1024;   // Largest transposition table of IDA*, in MB
+
     /**
      * Main method for the CLI application.
      *
@@ -112,8 +132,18 @@ public class CLI
                 System.out.println("\nInitial board state:");
                 System.out.println(board.toString());
                 System.out.println();
+
+                // Cars that can never affect the primary car are left out of the search
+                RelevantCars relevance = new RelevantCars(board);
+                Board searchBoard = relevance.getReducedBoard();
+                if (relevance.getDroppedCount() > 0)
+                {
+                    System.out.println("[#] " + relevance.getDroppedCount() + " car(s) can never affect the primary car and are left out of the search.");
+                    System.out.println();
+                }
                 
-                String algoChoice = validateOption(scanner, 4);
+                // The distance table covers every position of the layout, only offer it when it can be built
+                String algoChoice = validateOption(scanner, ALGORITHM_OPTIONS, DistanceTable.canBuild(searchBoard));
                 String heuristic = null;
                 Algorithm algorithm = null;
                 List<int[]> moves;
@@ -121,30 +151,78 @@ public class CLI
                 switch (algoChoice) 
                 {
                     case "A*":
-                        heuristic = validateOption(scanner, 2);
-                        algorithm = new AStar(board);
+                        heuristic = validateOption(scanner, HEURISTIC_OPTIONS);
+                        algorithm = new AStar(searchBoard);
                         break;
 
                     case "GBFS":
-                        heuristic = validateOption(scanner, 2);
-                        algorithm = new GBFS(board);
+                        heuristic = validateOption(scanner, HEURISTIC_OPTIONS);
+                        algorithm = new GBFS(searchBoard);
                         break;
 
                     case "UCS":
                         heuristic = "none";
-                        algorithm = new UCS(board);
+                        algorithm = new UCS(searchBoard);
                         break;
                         
                     case "Fringe":
-                        heuristic = validateOption(scanner, 2);
-                        algorithm = new Fringe(board);
+                        heuristic = validateOption(scanner, HEURISTIC_OPTIONS);
+                        algorithm = new Fringe(searchBoard);
+                        break;
+
+                    case "IDA*":
+                        heuristic = validateOption(scanner, HEURISTIC_OPTIONS);
+                        // Too small a table makes IDA* search the same subtrees again and again, see IDAStar
+                        int megabytes = validateNumber(scanner, "transposition table size in MB, 0 for none, "
+                                                       + (TranspositionTable.DEFAULT_BUDGET >> 20) + " recommended",
+                                                       0, MAX_TABLE_MEGABYTES);
+                        algorithm = new IDAStar(searchBoard, (long) megabytes << 20);
+                        break;
+
+                    case "HDA*":
+                        heuristic = validateOption(scanner, HEURISTIC_OPTIONS);
+                        algorithm = new HDAStar(searchBoard);
+                        break;
+
+                    case "Parallel BFS":
+                        heuristic = "none";
+                        algorithm = new ParallelBFS(searchBoard);
+                        break;
+
+                    case "Bidirectional":
+                        heuristic = "none";
+                        algorithm = new Bidirectional(searchBoard);
+                        break;
+
+                    case "Retrograde":
+                        heuristic = "none";
+                        algorithm = new Retrograde(searchBoard);
+                        break;
+
+                    case "ARA*":
+                        heuristic = validateOption(scanner, HEURISTIC_OPTIONS);
+                        int seconds = validateNumber(scanner, "time budget in seconds", 1, MAX_BUDGET_SECONDS);
+                        algorithm = new ARAStar(searchBoard, Duration.ofSeconds(seconds), (found, bound) ->
+                            System.out.printf("[#] Best so far: %d moves, at most %.2f times the optimum%n", found.size(), bound));
+                        break;
+
+                    case "Beam Search":
+                        heuristic = validateOption(scanner, HEURISTIC_OPTIONS);
+                        int width = validateNumber(scanner, "beam width", 1, MAX_BEAM_WIDTH);
+                        algorithm = new BeamSearch(searchBoard, width);
+                        break;
+
+                    case "SMA*":
+                        heuristic = validateOption(scanner, HEURISTIC_OPTIONS);
+                        int nodes = validateNumber(scanner, "node budget", 2, MAX_NODE_BUDGET);
+                        algorithm = new SMAStar(searchBoard, nodes);
                         break;
                 }
 
                 // Solve the puzzle and display the solution
                 if (algorithm != null) 
                 {
-                    moves = algorithm.solve(heuristic);
+                    moves = relevance.restoreMoves(algorithm.solve(heuristic));
                     Output.displayPerState(board,
                                            algorithm.getNodesExplored(), 
                                            algorithm.getExecutionTime(), 
@@ -183,6 +261,19 @@ public class CLI
     }
 
     public static String validateOption(Scanner scanner, int numOptions)
+    {
+        return validateOption(scanner, numOptions, true);
+    }
+
+    /**
+     * Read a menu option, asking again until the input is valid
+     *
+     * @param scanner Scanner reading the user input
+     * @param numOptions ALGORITHM_OPTIONS or HEURISTIC_OPTIONS, selects the menu
+     * @param tableFits Whether the board is small enough for the Retrograde distance table
+     * @return Name of the chosen algorithm or heuristic
+     */
+    public static String validateOption(Scanner scanner, int numOptions, boolean tableFits)
     {
         boolean valid = false;
         String algo = null;
@@ -190,7 +281,7 @@ public class CLI
         
         while (!valid) 
         {
-            if (numOptions == 4)
+            if (numOptions == ALGORITHM_OPTIONS)
             {
                 System.out.println("[#] Algorithm selection:");
                 System.out.println();
@@ -198,8 +289,17 @@ public class CLI
                 System.out.println("[-] 2. Greedy Best First Search (GBFS)");
                 System.out.println("[-] 3. Uniform Cost Search (UCS)");
                 System.out.println("[-] 4. Fringe Search");
+                System.out.println("[-] 5. Iterative Deepening A* (IDA*)");
+                System.out.println("[-] 6. Hash Distributed A* (HDA*)");
+                System.out.println("[-] 7. Parallel Breadth First Search (Parallel BFS)");
+                System.out.println("[-] 8. Bidirectional Search");
+                System.out.println(tableFits ? "[-] 9. Retrograde Distance Table"
+                                             : "[-] 9. Retrograde Distance Table (not available, board too large)");
+                System.out.println("[-] 10. Anytime Repairing A* (ARA*)");
+                System.out.println("[-] 11. Beam Search");
+                System.out.println("[-] 12. Simplified Memory-bounded A* (SMA*)");
                 System.out.println();
-                System.out.println("[?] Enter your choice (1, 2, 3, or 4)");
+                System.out.println("[?] Enter your choice (1 to " + ALGORITHM_OPTIONS + ")");
             }
             else
             {
@@ -207,8 +307,10 @@ public class CLI
                 System.out.println();
                 System.out.println("[-] 1. Manhattan Distance");
                 System.out.println("[-] 2. Blocking Cars");
+                System.out.println("[-] 3. Pattern Database");
+                System.out.println("[-] 4. Blocker Dependency");
                 System.out.println();   
-                System.out.println("[?] Enter your choice (1 or 2)");
+                System.out.println("[?] Enter your choice (1 to " + HEURISTIC_OPTIONS + ")");
             }
             
             System.out.println();
@@ -238,10 +340,16 @@ public class CLI
                 System.out.println();
                 continue;
             }
+            else if (numOptions == ALGORITHM_OPTIONS && option == 9 && !tableFits)
+            {
+                System.out.println("[!] The board is too large for a distance table. Please choose another algorithm.");
+                System.out.println();
+                continue;
+            }
             else
             {
                 valid = true;
-                if (numOptions == 4)
+                if (numOptions == ALGORITHM_OPTIONS)
                 {
                     switch (option) 
                     {
@@ -257,6 +365,30 @@ public class CLI
                         case 4:
                             algo = "Fringe";
                             break;
+                        case 5:
+                            algo = "IDA*";
+                            break;
+                        case 6:
+                            algo = "HDA*";
+                            break;
+                        case 7:
+                            algo = "Parallel BFS";
+                            break;
+                        case 8:
+                            algo = "Bidirectional";
+                            break;
+                        case 9:
+                            algo = "Retrograde";
+                            break;
+                        case 10:
+                            algo = "ARA*";
+                            break;
+                        case 11:
+                            algo = "Beam Search";
+                            break;
+                        case 12:
+                            algo = "SMA*";
+                            break;
                     }
                 }
                 else
@@ -269,10 +401,52 @@ public class CLI
                         case 2:
                             algo = "Blocking";
                             break;
+                        case 3:
+                            algo = "Pattern";
+                            break;
+                        case 4:
+                            algo = "Dependency";
+                            break;
                     }   
                 }
             }
         }
         return algo;
     }
-}
\ No newline at end of file
+
+    /**
+     * Read a whole number in a range, asking again until the input is valid
+     *
+     * @param scanner Scanner reading the user input
+     * @param name Description of the number, shown in the prompt
+     * @param min Smallest accepted value
+     * @param max Largest accepted value
+     * @return The number entered
+     */
+    public static int validateNumber(Scanner scanner, String name, int min, int max)
+    {
+        while (true)
+        {
+            System.out.println("[?] Enter the " + name + " (" + min + " to " + max + ")");
+            System.out.println();
+            String line = scanner.nextLine().trim();
+            System.out.println();
+
+            if (!line.matches("\\d{1,9}"))
+            {
+                System.out.println("[!] Invalid input. Please enter a single non-negative integer.");
+                System.out.println();
+                continue;
+            }
+
+            int value = Integer.parseInt(line);
+            if (value < min || value > max)
+            {
+                System.out.println("[!] Invalid input. Please enter \"" + min + "\" to \"" + max + "\".");
+                System.out.println();
+                continue;
+            }
+            return value;
+        }
+    }
+}
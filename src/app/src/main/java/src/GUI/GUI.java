@@ -20,13 +20,16 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.List;
 
 import src.ADT.Board;
+import src.ADT.RelevantCars;
 import src.Algorithm.AStar;
 import src.Algorithm.GBFS;
 import src.Algorithm.UCS;
 import src.Algorithm.Fringe;
+import src.Algorithm.ARAStar;
 import src.Algorithm.Algorithm;
 import src.IO.Input;
 
@@ -35,12 +38,18 @@ import src.IO.Input;
  */
 public class GUI extends Application 
 {
+    // Constants
+    private static final int MAX_BUDGET_SECONDS = 600; // Largest time budget of the anytime solver
+
     private Button aStarButton;
     private Button gbfsButton;
     private Button ucsButton;
     private Button fringeButton;
+    private Button araStarButton;
     private Button distanceButton;
     private Button blockingButton;
+    private Button patternButton;
+    private Button dependencyButton;
     private Button loadButton;
     private Button solveButton;
     private Button playButton;
@@ -50,6 +59,7 @@ public class GUI extends Application
     private Button saveTxtButton;
     
     private Slider speedSlider;
+    private TextField budgetField;
     private Label fileNameLabel;
     private TextArea previewArea;
     private VBox mainContent;
@@ -57,6 +67,7 @@ public class GUI extends Application
     
     private long searchTime;
     private int nodesExplored;
+    private double suboptimalityBound = Double.NaN;
     private int currentStep;
     private int totalSteps;
     private Board board;
@@ -170,11 +181,13 @@ public class GUI extends Application
         gbfsButton = new Button("GBFS");
         ucsButton = new Button("UCS");
         fringeButton = new Button("Fringe");
+        araStarButton = new Button("ARA*");
         
         aStarButton.setStyle(createButtonStyle(false));
         gbfsButton.setStyle(createButtonStyle(false));
         ucsButton.setStyle(createButtonStyle(false));
         fringeButton.setStyle(createButtonStyle(false));
+        araStarButton.setStyle(createButtonStyle(false));
         
         // Set size and font for algorithm buttons - make them smaller to fit in one row
         aStarButton.setPrefWidth(70);
@@ -193,32 +206,63 @@ public class GUI extends Application
         fringeButton.setPrefHeight(40);
         fringeButton.setFont(Font.font("Poly", 12));
 
+        araStarButton.setPrefWidth(80);
+        araStarButton.setPrefHeight(40);
+        araStarButton.setFont(Font.font("Poly", 12));
+
         // Disable algorithm buttons initially
         aStarButton.setDisable(true);
         gbfsButton.setDisable(true);
         ucsButton.setDisable(true);
         fringeButton.setDisable(true);
+        araStarButton.setDisable(true);
+
+        algorithmButtons.getChildren().addAll(aStarButton, gbfsButton, ucsButton, fringeButton, araStarButton);
+
+        // Time budget of ARA*, only editable while it is selected
+        HBox budgetSection = new HBox(10);
+        budgetSection.setAlignment(Pos.CENTER);
 
-        algorithmButtons.getChildren().addAll(aStarButton, gbfsButton, ucsButton, fringeButton);
-        VBox.setMargin(algorithmButtons, new Insets(0, 0, 15, 0));
+        Label budgetLabel = new Label("ARA* budget (s):");
+        budgetLabel.setFont(Font.font("Poly", 14));
+
+        budgetField = new TextField(String.valueOf(ARAStar.DEFAULT_BUDGET.getSeconds()));
+        budgetField.setPrefWidth(70);
+        budgetField.setFont(Font.font("Poly", 12));
+        budgetField.setDisable(true);
+
+        budgetSection.getChildren().addAll(budgetLabel, budgetField);
+        VBox.setMargin(budgetSection, new Insets(0, 0, 15, 0));
 
         // Heuristic section
         Label heuristicLabel = new Label("~ Heuristics ~");
         heuristicLabel.setFont(Font.font("Poly", 16));
         heuristicLabel.setAlignment(Pos.CENTER);
         
-        HBox heuristicButtons = new HBox(10);
+        HBox heuristicButtons = new HBox(8); // Reduced spacing to fit all buttons
         heuristicButtons.setAlignment(Pos.CENTER);
         
         distanceButton = new Button("Distance");
         blockingButton = new Button("Blocking");
+        patternButton = new Button("Pattern");
+        dependencyButton = new Button("Dependency");
         
         distanceButton.setStyle(createButtonStyle(false));
         blockingButton.setStyle(createButtonStyle(false));
+        patternButton.setStyle(createButtonStyle(false));
+        dependencyButton.setStyle(createButtonStyle(false));
         distanceButton.setDisable(true);
         blockingButton.setDisable(true);
+        patternButton.setDisable(true);
+        dependencyButton.setDisable(true);
+
+        // Smaller font so the four heuristic buttons fit in one row
+        distanceButton.setFont(Font.font("Poly", 12));
+        blockingButton.setFont(Font.font("Poly", 12));
+        patternButton.setFont(Font.font("Poly", 12));
+        dependencyButton.setFont(Font.font("Poly", 12));
         
-        heuristicButtons.getChildren().addAll(distanceButton, blockingButton);
+        heuristicButtons.getChildren().addAll(distanceButton, blockingButton, patternButton, dependencyButton);
 
         // Add separator after heuristic section
         Separator heuristicSeparator = new Separator();
@@ -240,6 +284,7 @@ public class GUI extends Application
             fileSeparator,
             algorithmLabel,
             algorithmButtons,
+            budgetSection,
             heuristicLabel,
             heuristicButtons,
             heuristicSeparator,
@@ -521,6 +566,15 @@ private void setupResultsView()
         outLabel.setFont(Font.font("Poly", 16));
         
         statsContainer.getChildren().addAll(stepCountText, outLabel);
+
+        // ARA* may stop at its budget with a solution that is not proven optimal
+        if (!Double.isNaN(suboptimalityBound))
+        {
+            String boundText = (suboptimalityBound == 1.0) ? "Optimal" : String.format("At most %.2f times the optimum", suboptimalityBound);
+            Label boundLabel = new Label("Bound: " + boundText);
+            boundLabel.setFont(Font.font("Poly", 16));
+            statsContainer.getChildren().add(boundLabel);
+        }
         
         // Add all components to the main content layout in order with proper spacing
         contentLayout.getChildren().addAll(
@@ -597,10 +651,13 @@ private void setupResultsView()
         gbfsButton.setOnAction(e -> handleAlgorithmSelection("GBFS"));
         ucsButton.setOnAction(e -> handleAlgorithmSelection("UCS"));
         fringeButton.setOnAction(e -> handleAlgorithmSelection("Fringe"));
+        araStarButton.setOnAction(e -> handleAlgorithmSelection("ARA*"));
         
         // Heuristic button handlers
         distanceButton.setOnAction(e -> handleHeuristicSelection("Manhattan"));
         blockingButton.setOnAction(e -> handleHeuristicSelection("Blocking"));
+        patternButton.setOnAction(e -> handleHeuristicSelection("Pattern"));
+        dependencyButton.setOnAction(e -> handleHeuristicSelection("Dependency"));
         
         // Solve button handler
         solveButton.setOnAction(e -> handleSolveButtonClick());
@@ -681,6 +738,7 @@ private void setupResultsView()
         gbfsButton.setStyle(createButtonStyle(false));
         ucsButton.setStyle(createButtonStyle(false));
         fringeButton.setStyle(createButtonStyle(false));
+        araStarButton.setStyle(createButtonStyle(false));
         
         switch (algorithm) 
         {
@@ -696,22 +754,33 @@ private void setupResultsView()
             case "Fringe":
                 fringeButton.setStyle(createButtonStyle(true));
                 break;
+            case "ARA*":
+                araStarButton.setStyle(createButtonStyle(true));
+                break;
         }
         
+        budgetField.setDisable(!algorithm.equals("ARA*"));
+
         selectedHeuristic = "";
         distanceButton.setStyle(createButtonStyle(false));
         blockingButton.setStyle(createButtonStyle(false));
+        patternButton.setStyle(createButtonStyle(false));
+        dependencyButton.setStyle(createButtonStyle(false));
         
         if (algorithm.equals("UCS")) 
         {
             distanceButton.setDisable(true);
             blockingButton.setDisable(true);
+            patternButton.setDisable(true);
+            dependencyButton.setDisable(true);
             solveButton.setDisable(false);
         } 
         else 
         {
             distanceButton.setDisable(false);
             blockingButton.setDisable(false);
+            patternButton.setDisable(false);
+            dependencyButton.setDisable(false);
             solveButton.setDisable(true);
         }
     }
@@ -728,6 +797,8 @@ private void setupResultsView()
         // Reset button styles
         distanceButton.setStyle(createButtonStyle(false));
         blockingButton.setStyle(createButtonStyle(false));
+        patternButton.setStyle(createButtonStyle(false));
+        dependencyButton.setStyle(createButtonStyle(false));
         
         // Highlight selected button
         switch (heuristic) 
@@ -738,6 +809,12 @@ private void setupResultsView()
             case "Blocking":
                 blockingButton.setStyle(createButtonStyle(true));
                 break;
+            case "Pattern":
+                patternButton.setStyle(createButtonStyle(true));
+                break;
+            case "Dependency":
+                dependencyButton.setStyle(createButtonStyle(true));
+                break;
         }
         
         // Enable solve button if algorithm is selected
@@ -750,6 +827,29 @@ private void setupResultsView()
      */
     private void handleSolveButtonClick() 
     {
+        // Read the time budget before leaving the JavaFX thread
+        Duration budget = ARAStar.DEFAULT_BUDGET;
+        if (selectedAlgorithm.equals("ARA*"))
+        {
+            int seconds;
+            try 
+            {
+                seconds = Integer.parseInt(budgetField.getText().trim());
+            } 
+            catch (NumberFormatException e) 
+            {
+                seconds = 0;
+            }
+
+            if (seconds < 1 || seconds > MAX_BUDGET_SECONDS) 
+            {
+                showAlert("Time budget must be a whole number of seconds between 1 and " + MAX_BUDGET_SECONDS);
+                return;
+            }
+            budget = Duration.ofSeconds(seconds);
+        }
+        final Duration araBudget = budget;
+
         solveButton.setDisable(true);
         
         isPlaying = false;
@@ -832,27 +932,41 @@ private void setupResultsView()
                         return null;
                     }
                     
-                    // Solve the puzzle using the selected algorithm
+                    // Solve the puzzle using the selected algorithm, without the cars that can never matter
+                    RelevantCars relevance = new RelevantCars(board);
+                    Board searchBoard = relevance.getReducedBoard();
                     Algorithm algorithm = null;
                     List<int[]> solutionMoves = null;
+                    suboptimalityBound = Double.NaN;
                 
                     switch (selectedAlgorithm) 
                     {
                         case "A*":
-                            algorithm = new AStar(board);
+                            algorithm = new AStar(searchBoard);
                             solutionMoves = algorithm.solve(selectedHeuristic);
                             break;
                         case "GBFS":
-                            algorithm = new GBFS(board);
+                            algorithm = new GBFS(searchBoard);
                             solutionMoves = algorithm.solve(selectedHeuristic);
                             break;
                         case "UCS":
-                            algorithm = new UCS(board);
+                            algorithm = new UCS(searchBoard);
                             solutionMoves = algorithm.solve("none");
                             break;
                         case "Fringe":
-                            algorithm = new Fringe(board);
+                            algorithm = new Fringe(searchBoard);
+                            solutionMoves = algorithm.solve(selectedHeuristic);
+                            break;
+                        case "ARA*":
+                            // Show every improvement while the budget runs
+                            ARAStar araStar = new ARAStar(searchBoard, araBudget, (found, bound) -> 
+                            {
+                                String text = String.format("Best so far: %d moves, at most %.2f times the optimum", found.size(), bound);
+                                Platform.runLater(() -> loadingLabel.setText(text));
+                            });
+                            algorithm = araStar;
                             solutionMoves = algorithm.solve(selectedHeuristic);
+                            suboptimalityBound = araStar.getSuboptimalityBound();
                             break;
                     }
                     
@@ -860,6 +974,7 @@ private void setupResultsView()
                     {
                         searchTime = algorithm.getExecutionTime();
                         nodesExplored = algorithm.getNodesExplored();
+                        solutionMoves = relevance.restoreMoves(solutionMoves);
                     }
                     
                     return solutionMoves;
@@ -1160,12 +1275,18 @@ private void setupResultsView()
         gbfsButton.setStyle(createButtonStyle(false));
         ucsButton.setStyle(createButtonStyle(false));
         fringeButton.setStyle(createButtonStyle(false));
+        araStarButton.setStyle(createButtonStyle(false));
+        budgetField.setDisable(true);
         
         selectedHeuristic = "";
         distanceButton.setStyle(createButtonStyle(false));
         blockingButton.setStyle(createButtonStyle(false));
+        patternButton.setStyle(createButtonStyle(false));
+        dependencyButton.setStyle(createButtonStyle(false));
         distanceButton.setDisable(true);
         blockingButton.setDisable(true);
+        patternButton.setDisable(true);
+        dependencyButton.setDisable(true);
         
         solveButton.setDisable(true);
         resetAnimationControls();
@@ -1175,6 +1296,7 @@ private void setupResultsView()
         moves = null;
         searchTime = 0;
         nodesExplored = 0;
+        suboptimalityBound = Double.NaN;
     }
     
     /**
@@ -1213,6 +1335,7 @@ private void setupResultsView()
         gbfsButton.setDisable(false);
         ucsButton.setDisable(false);
         fringeButton.setDisable(false);
+        araStarButton.setDisable(false);
     }
 
     /**
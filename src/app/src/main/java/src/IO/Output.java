@@ -7,7 +7,6 @@ import java.util.List;
 import java.util.Scanner;
 
 import src.ADT.Board;
-import src.ADT.Car;
 
 /**
  * Output class to save the puzzle solution to a file.
@@ -452,22 +451,8 @@ public class Output
      */
     public static Board applyMoveAmount(Board board, int pieceIndex, int moveAmount) 
     {
-        Board newBoard = board.copy();
-        Car car = newBoard.getCars().get(pieceIndex);
-        
-        int[][] oldCells = car.getOccupiedCells();
-        for (int[] cell : oldCells) 
-            newBoard.getGrid()[cell[0]][cell[1]] = '.';
-        
         // Apply the move in one step
-        car.move(moveAmount);
-        
-        // Update the grid with the new car position
-        int[][] newCells = car.getOccupiedCells();
-        for (int[] cell : newCells)
-            newBoard.getGrid()[cell[0]][cell[1]] = car.getId();
-        
-        return newBoard;
+        return board.applyMove(pieceIndex, moveAmount);
     }
     
     /**
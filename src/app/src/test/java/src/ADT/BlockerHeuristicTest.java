@@ -0,0 +1,51 @@
+package src.ADT;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Blocker dependency values must never exceed the exact distance, found by a
+ * breadth-first search, along random walks that reach the exit from every side.
+ */
+class BlockerHeuristicTest
+{
+    // Constants
+    private static final long SEED = 19L;         // Seed of the random boards and walks
+    private static final int RANDOM_BOARDS = 300; // Number of random boards walked
+    private static final int WALK = 20;           // Moves made on each walk
+    private static final int SCRAMBLES = 3;       // Number of walks per test config
+    private static final int MAX_WALK = 200;      // Longest random walk to the start of a config walk
+
+    @Test
+    void blockerValuesAreAdmissibleOnRandomBoards()
+    {
+        Random random = new Random(SEED);
+        Set<String> sides = new HashSet<>();
+        for (int k = 0; k < RANDOM_BOARDS; k++)
+        {
+            Board board = TestBoards.randomBoard(random);
+            sides.add(board.getExitSide());
+            TestBoards.assertAdmissibleWalk(BlockerHeuristic::calculate, board, random, WALK, "random board " + k + " (" + board.getExitSide() + ")");
+        }
+
+        for (String side : TestBoards.EXIT_SIDES)
+            assertTrue(sides.contains(side), "no random board with a " + side + " exit");
+    }
+
+    @Test
+    void blockerValuesAreAdmissibleOnTestConfigs() throws IOException
+    {
+        Random random = new Random(SEED);
+        for (String name : new String[]{"config-asisten", "config-6"})
+        {
+            Board board = TestBoards.load(name);
+            for (int k = 0; k < SCRAMBLES; k++)
+                TestBoards.assertAdmissibleWalk(BlockerHeuristic::calculate, TestBoards.scramble(board, random, random.nextInt(MAX_WALK)), random, WALK, name + " walk " + k);
+        }
+    }
+}
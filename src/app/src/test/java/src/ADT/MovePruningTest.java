@@ -0,0 +1,103 @@
+package src.ADT;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import src.Algorithm.AStar;
+import src.Algorithm.Bidirectional;
+import src.Algorithm.GBFS;
+import src.Algorithm.IDAStar;
+import src.Algorithm.UCS;
+
+/**
+ * Solvers that skip commuting moves (see MovePruning) must still find shortest solutions,
+ * checked against a breadth-first search that generates every move. A* with every
+ * admissible heuristic is held to the same lengths. GBFS and Bidirectional, which only
+ * searches back from some of the solved positions, must find a valid solution exactly
+ * when one exists.
+ */
+class MovePruningTest
+{
+    // Constants
+    private static final String[] CONFIGS = {"config-asisten", "config-11", "config-6", "config-7", "config-8"};
+    private static final long SEED = 24L;         // Seed of the random boards
+    private static final int RANDOM_BOARDS = 300; // Number of random boards checked
+    private static final int SCRAMBLES = 10;      // Number of random positions checked per test config
+    private static final int MAX_WALK = 200;      // Longest random walk to a scrambled position
+    private static final String[] HEURISTICS = {"Manhattan", "Blocking", "Pattern", "Dependency"};
+
+    @Test
+    void prunedSolversMatchUnprunedSearchOnTestConfigs() throws IOException
+    {
+        for (String name : CONFIGS)
+            checkSolvers(TestBoards.load(name), name);
+    }
+
+    @Test
+    void prunedSolversMatchUnprunedSearchOnRandomBoards()
+    {
+        Random random = new Random(SEED);
+        for (int k = 0; k < RANDOM_BOARDS; k++)
+            checkSolvers(TestBoards.randomBoard(random), "random board " + k);
+    }
+
+    @Test
+    void prunedSolversMatchUnprunedSearchOnScrambledConfigs() throws IOException
+    {
+        // Random layouts are mostly solved in a few moves, walks on the test configs reach deeper positions
+        Random random = new Random(SEED);
+        for (String name : new String[]{"config-asisten", "config-6"})
+        {
+            Board board = TestBoards.load(name);
+            for (int k = 0; k < SCRAMBLES; k++)
+                checkSolvers(TestBoards.scramble(board, random, random.nextInt(MAX_WALK)), name + " scramble " + k);
+        }
+    }
+
+    /**
+     * Compare the pruned solvers with the unpruned search on one board
+     *
+     * @param board The board to solve
+     * @param label Description of the board for failure messages
+     */
+    private static void checkSolvers(Board board, String label)
+    {
+        int expected = TestBoards.shortestLength(board);
+
+        check(board, new UCS(board).solve("none"), expected, label + ", UCS");
+        checkValid(board, new Bidirectional(board).solve("none"), expected, label + ", Bidirectional");
+
+        // Without a solution IDA* only stops at its depth limit
+        if (expected >= 0) check(board, new IDAStar(board).solve("Blocking"), expected, label + ", IDA*");
+
+        for (String heuristic : HEURISTICS)
+        {
+            check(board, new AStar(board).solve(heuristic), expected, label + ", A* " + heuristic);
+
+            // Greedy solutions can be longer, only their validity is checked
+            checkValid(board, new GBFS(board).solve(heuristic), expected, label + ", GBFS " + heuristic);
+        }
+    }
+
+    private static void checkValid(Board board, List<int[]> moves, int expected, String label)
+    {
+        assertEquals(expected <= 0, moves.isEmpty(), label + ": moves found");
+        if (expected >= 0) TestBoards.assertSolves(board, moves, label);
+    }
+
+    private static void check(Board board, List<int[]> moves, int expected, String label)
+    {
+        if (expected < 0)
+        {
+            assertTrue(moves.isEmpty(), label + ": solution found for an unsolvable board");
+            return;
+        }
+
+        assertEquals(expected, moves.size(), label + ": solution length");
+        TestBoards.assertSolves(board, moves, label);
+    }
+}
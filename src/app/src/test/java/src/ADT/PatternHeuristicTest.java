@@ -0,0 +1,44 @@
+package src.ADT;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Pattern database values must be lower bounds on the exact distance, checked against a
+ * breadth-first search along random walks, and delta must match a full evaluation.
+ */
+class PatternHeuristicTest
+{
+    // Constants
+    private static final long SEED = 18L;         // Seed of the random boards and walks
+    private static final int RANDOM_BOARDS = 200; // Number of random boards walked
+    private static final int WALK = 20;           // Moves made on each walk
+    private static final int SCRAMBLES = 3;       // Number of walks per test config
+    private static final int MAX_WALK = 200;      // Longest random walk to the start of a config walk
+
+    @Test
+    void patternValuesAreAdmissibleOnRandomBoards()
+    {
+        Random random = new Random(SEED);
+        for (int k = 0; k < RANDOM_BOARDS; k++)
+        {
+            Board board = TestBoards.randomBoard(random);
+            TestBoards.assertAdmissibleWalk(PatternHeuristic.forBoard(board), board, random, WALK, "random board " + k);
+        }
+    }
+
+    @Test
+    void patternValuesAreAdmissibleOnTestConfigs() throws IOException
+    {
+        Random random = new Random(SEED);
+        for (String name : new String[]{"config-asisten", "config-6"})
+        {
+            Board board = TestBoards.load(name);
+            Heuristic pattern = PatternHeuristic.forBoard(board);
+            for (int k = 0; k < SCRAMBLES; k++)
+                TestBoards.assertAdmissibleWalk(pattern, TestBoards.scramble(board, random, random.nextInt(MAX_WALK)), random, WALK, name + " walk " + k);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package src.ADT;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import src.Algorithm.UCS;
+
+/**
+ * Solving the reduced board of RelevantCars and restoring its moves must give a solution
+ * of the full board with the length of a shortest one.
+ */
+class RelevantCarsTest
+{
+    // Constants
+    private static final String[] CONFIGS = {"config-asisten", "config-11", "config-6", "config-7", "config-8"};
+    private static final long SEED = 25L;         // Seed of the random boards
+    private static final int RANDOM_BOARDS = 500; // Number of random boards checked
+
+    @Test
+    void dropsCarsThatNeverMeetThePrimaryCar()
+    {
+        // E and X fill a row and never move, F, G and V behind them can never reach the primary car
+        Board board = TestBoards.fromRows("..B....",
+                                          "..BQQ..",
+                                          "PP..C..",
+                                          "....C..",
+                                          "EEEXXXX",
+                                          "FF...V.",
+                                          ".GG..V.");
+        RelevantCars relevance = new RelevantCars(board);
+
+        assertEquals(3, relevance.getDroppedCount(), "dropped cars");
+        assertEquals(board.getCarCount() - 3, relevance.getReducedBoard().getCarCount(), "cars on the reduced board");
+        checkReduction(board, relevance, "sparse board");
+    }
+
+    @Test
+    void keepsBoardWhenEveryCarIsRelevant()
+    {
+        Board board = TestBoards.fromRows("..A.",
+                                          "PPA.",
+                                          "....");
+        RelevantCars relevance = new RelevantCars(board);
+
+        assertEquals(0, relevance.getDroppedCount(), "dropped cars");
+        assertSame(board, relevance.getReducedBoard(), "reduced board");
+    }
+
+    @Test
+    void findsCarsNearThePrimaryCarsPath()
+    {
+        // B and C can cross the primary car's path, Q only meets their spans
+        Board board = TestBoards.fromRows("..B....",
+                                          "..BQQ..",
+                                          "PP..C..",
+                                          "....C..",
+                                          "EEEXXXX",
+                                          "FF...V.",
+                                          ".GG..V.");
+
+        assertEquals("BCP", nearCars(board, 1), "cars crossing the path");
+        assertEquals("BCPQ", nearCars(board, 2), "cars two steps from the path");
+        assertEquals("BCPQ", nearCars(board, board.getCarCount()), "cars any number of steps from the path");
+    }
+
+    @Test
+    void reducedSolutionsSolveTestConfigs() throws IOException
+    {
+        for (String name : CONFIGS)
+        {
+            Board board = TestBoards.load(name);
+            checkReduction(board, new RelevantCars(board), name);
+        }
+    }
+
+    @Test
+    void reducedSolutionsSolveRandomBoards()
+    {
+        Random random = new Random(SEED);
+        int reducedBoards = 0;
+
+        for (int k = 0; k < RANDOM_BOARDS; k++)
+        {
+            Board board = TestBoards.randomBoard(random);
+            RelevantCars relevance = new RelevantCars(board);
+            if (relevance.getDroppedCount() > 0) reducedBoards++;
+
+            checkReduction(board, relevance, "random board " + k);
+        }
+
+        assertTrue(reducedBoards > 0, "no random board had cars to drop");
+    }
+
+    /**
+     * Ids of the cars within a number of steps of the primary car's path, in sorted order
+     */
+    private static String nearCars(Board board, int steps)
+    {
+        boolean[] near = RelevantCars.findCarsNearPath(board, steps);
+        StringBuilder ids = new StringBuilder();
+        for (int c = 0; c < near.length; c++)
+            if (near[c]) ids.append(board.getCars().get(c).getId());
+
+        char[] sorted = ids.toString().toCharArray();
+        Arrays.sort(sorted);
+        return new String(sorted);
+    }
+
+    /**
+     * Solve the full and the reduced board and replay the restored moves on the full board
+     *
+     * @param board The full board
+     * @param relevance The analysis of the board
+     * @param label Description of the board for failure messages
+     */
+    private static void checkReduction(Board board, RelevantCars relevance, String label)
+    {
+        List<int[]> full = new UCS(board).solve("none");
+        List<int[]> restored = relevance.restoreMoves(new UCS(relevance.getReducedBoard()).solve("none"));
+
+        assertEquals(full.size(), restored.size(), label + ": solution length");
+        if (!full.isEmpty()) TestBoards.assertSolves(board, restored, label + ", restored moves");
+    }
+}
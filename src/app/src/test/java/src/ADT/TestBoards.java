@@ -0,0 +1,285 @@
+package src.ADT;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import src.IO.Input;
+
+/**
+ * Boards and reference checks shared by the solver tests.
+ */
+final class TestBoards
+{
+    // Constants
+    static final String[] EXIT_SIDES = {"LEFT", "RIGHT", "TOP", "BOTTOM"};
+
+    private TestBoards() {}
+
+    /**
+     * Load a puzzle from the test directory, resolved like the CLI does from the app directory
+     *
+     * @param name File name without extension
+     * @return The loaded board
+     */
+    static Board load(String name) throws IOException
+    {
+        File parentDir = new File(System.getProperty("user.dir")).getParentFile().getParentFile();
+        File file = new File(parentDir + "/test/" + name + ".txt");
+
+        Input input = new Input();
+        input.validateFile(file);
+        input.readInput(file.getPath());
+        assertFalse(input.hasError(), name + ": " + input.getErrorMsg());
+
+        return build(input.getRows(), input.getCols(), input.getNumCars(),
+                     input.getExitRow(), input.getExitCol(), input.getExitSide(), input.getBoardConfig());
+    }
+
+    /**
+     * Build a board from its rows, with the exit on the right of the primary car's row
+     *
+     * @param rows Rows of the grid, '.' for empty cells
+     * @return The loaded board
+     */
+    static Board fromRows(String... rows)
+    {
+        return withExit("RIGHT", rows);
+    }
+
+    /**
+     * Build a board from its rows, with the exit on a given side of the primary car's lane
+     *
+     * @param exitSide "LEFT", "RIGHT", "TOP" or "BOTTOM"
+     * @param rows Rows of the grid, '.' for empty cells
+     * @return The loaded board
+     */
+    private static Board withExit(String exitSide, String[] rows)
+    {
+        int primaryRow = 0;
+        int primaryCol = 0;
+        int numCars = -1;
+        Set<Character> cars = new HashSet<>();
+        for (int i = 0; i < rows.length; i++)
+        {
+            if (rows[i].indexOf('P') >= 0)
+            {
+                primaryRow = i;
+                primaryCol = rows[i].indexOf('P');
+            }
+            for (char c : rows[i].toCharArray())
+                if (c != '.' && cars.add(c)) numCars++;
+        }
+
+        // Same exit cells as Input reads them: the border cell of the lane on that side
+        int lastRow = rows.length - 1;
+        int lastCol = rows[0].length() - 1;
+        int exitRow = exitSide.equals("TOP") ? 0 : exitSide.equals("BOTTOM") ? lastRow : primaryRow;
+        int exitCol = exitSide.equals("LEFT") ? 0 : exitSide.equals("RIGHT") ? lastCol : primaryCol;
+
+        return build(rows.length, rows[0].length(), numCars, exitRow, exitCol, exitSide,
+                     new ArrayList<>(Arrays.asList(rows)));
+    }
+
+    private static Board build(int rows, int cols, int numCars, int exitRow, int exitCol, String exitSide, ArrayList<String> config)
+    {
+        Board board = new Board(rows, cols, numCars, exitRow, exitCol, exitSide, null);
+        board.loadConfiguration(config);
+        assertFalse(board.hasError(), board.getErrorMsg());
+        return board;
+    }
+
+    /**
+     * Generate a small random board, solvable or not, with the exit on a random side
+     *
+     * @param random Source of the layout
+     * @return The generated board
+     */
+    static Board randomBoard(Random random)
+    {
+        int rows = 4 + random.nextInt(3);
+        int cols = 4 + random.nextInt(3);
+        char[][] grid = new char[rows][cols];
+        for (char[] row : grid) Arrays.fill(row, '.');
+
+        int primaryRow = random.nextInt(rows);
+        int primaryCol = random.nextInt(cols - 2);
+        grid[primaryRow][primaryCol] = 'P';
+        grid[primaryRow][primaryCol + 1] = 'P';
+
+        char id = 'A';
+        int attempts = 10 + random.nextInt(40);
+        for (int k = 0; k < attempts && id <= 'Z'; k++, id++)
+        {
+            if (id == 'P' || id == 'K') continue;
+
+            boolean horizontal = random.nextBoolean();
+            int length = 2 + random.nextInt(2);
+            int row = random.nextInt(horizontal ? rows : rows - length + 1);
+            int col = random.nextInt(horizontal ? cols - length + 1 : cols);
+            if (horizontal && row == primaryRow) continue;
+
+            boolean free = true;
+            for (int q = 0; q < length; q++)
+                if (grid[horizontal ? row : row + q][horizontal ? col + q : col] != '.') free = false;
+            if (!free) continue;
+
+            for (int q = 0; q < length; q++)
+                grid[horizontal ? row : row + q][horizontal ? col + q : col] = id;
+        }
+
+        // The layout is drawn with the exit on the right, mirror and transpose it for the other sides
+        String exitSide = EXIT_SIDES[random.nextInt(EXIT_SIDES.length)];
+        boolean transpose = exitSide.equals("TOP") || exitSide.equals("BOTTOM");
+        boolean mirror = exitSide.equals("LEFT") || exitSide.equals("TOP");
+
+        int outRows = transpose ? cols : rows;
+        int outCols = transpose ? rows : cols;
+        String[] lines = new String[outRows];
+        for (int i = 0; i < outRows; i++)
+        {
+            char[] line = new char[outCols];
+            for (int j = 0; j < outCols; j++)
+            {
+                int r = transpose ? j : i;
+                int c = transpose ? i : j;
+                line[j] = grid[r][mirror ? cols - 1 - c : c];
+            }
+            lines[i] = new String(line);
+        }
+        return withExit(exitSide, lines);
+    }
+
+    /**
+     * Reach a random position of a board's puzzle by a random walk
+     *
+     * @param board The board to start from, left unchanged
+     * @param random Source of the moves
+     * @param steps Number of random moves made
+     * @return A new board at the position reached
+     */
+    static Board scramble(Board board, Random random, int steps)
+    {
+        Board curBoard = board.copy();
+        int[] moveBuffer = new int[board.getMaxMoves()];
+
+        for (int s = 0; s < steps; s++)
+        {
+            int moveCount = curBoard.generateMoves(moveBuffer);
+            if (moveCount == 0) break;
+
+            int move = moveBuffer[random.nextInt(moveCount)];
+            curBoard.doMove(Board.moveCar(move), Board.moveAmount(move));
+        }
+        return curBoard;
+    }
+
+    /**
+     * Length of a shortest solution, by a breadth-first search that generates every move
+     *
+     * @param board The board to solve
+     * @return Number of moves, or -1 if the puzzle cannot be solved
+     */
+    static int shortestLength(Board board)
+    {
+        Board curBoard = board.copy();
+        int[] moveBuffer = new int[board.getMaxMoves()];
+
+        Set<String> seen = new HashSet<>();
+        Deque<byte[]> layer = new ArrayDeque<>();
+        seen.add(Arrays.toString(board.getPositions()));
+        layer.add(board.getPositions());
+
+        for (int depth = 0; !layer.isEmpty(); depth++)
+        {
+            Deque<byte[]> next = new ArrayDeque<>();
+            for (byte[] positions : layer)
+            {
+                curBoard.setPositions(positions);
+                if (curBoard.isSolved()) return depth;
+
+                int moveCount = curBoard.generateMoves(moveBuffer);
+                for (int m = 0; m < moveCount; m++)
+                {
+                    int car = Board.moveCar(moveBuffer[m]);
+                    int amount = Board.moveAmount(moveBuffer[m]);
+
+                    curBoard.doMove(car, amount);
+                    if (seen.add(Arrays.toString(curBoard.getPositions()))) next.add(curBoard.getPositions());
+                    curBoard.undoMove(car, amount);
+                }
+            }
+            layer = next;
+        }
+        return -1;
+    }
+
+    /**
+     * Walk randomly from a board and check a heuristic at every position reached. The value
+     * must not exceed the length of a shortest solution, must only be State.INVALID when
+     * there is no solution, and delta must agree with calculate after every move.
+     *
+     * @param heuristic The heuristic to check
+     * @param board The board the walk starts from, left unchanged
+     * @param random Source of the moves
+     * @param steps Number of random moves made
+     * @param label Description of the walk for failure messages
+     */
+    static void assertAdmissibleWalk(Heuristic heuristic, Board board, Random random, int steps, String label)
+    {
+        Board curBoard = board.copy();
+        int[] moveBuffer = new int[board.getMaxMoves()];
+        int hValue = heuristic.calculate(curBoard);
+
+        for (int s = 0; ; s++)
+        {
+            int distance = shortestLength(curBoard);
+            if (hValue == State.INVALID) assertEquals(-1, distance, label + ", step " + s + ": solvable position marked invalid");
+            else if (distance >= 0) assertTrue(hValue <= distance, label + ", step " + s + ": h " + hValue + " above distance " + distance);
+
+            int moveCount = curBoard.generateMoves(moveBuffer);
+            if (s == steps || moveCount == 0) return;
+
+            int move = moveBuffer[random.nextInt(moveCount)];
+            curBoard.doMove(Board.moveCar(move), Board.moveAmount(move));
+            hValue = heuristic.delta(curBoard, hValue, move);
+            assertEquals(heuristic.calculate(curBoard), hValue, label + ", step " + (s + 1) + ": delta");
+        }
+    }
+
+    /**
+     * Check that a list of moves is legal on a board and solves it
+     *
+     * @param board The board the moves start from, left unchanged
+     * @param moves Moves as [carIndex, moveAmount]
+     * @param label Description of the solution for failure messages
+     */
+    static void assertSolves(Board board, List<int[]> moves, String label)
+    {
+        Board curBoard = board.copy();
+        int[] moveBuffer = new int[board.getMaxMoves()];
+
+        for (int[] move : moves)
+        {
+            int packed = Board.packMove(move[0], move[1]);
+            int moveCount = curBoard.generateMoves(moveBuffer);
+
+            boolean legal = false;
+            for (int m = 0; m < moveCount; m++)
+                if (moveBuffer[m] == packed) legal = true;
+            assertTrue(legal, label + ": illegal move " + Arrays.toString(move));
+
+            curBoard.doMove(move[0], move[1]);
+        }
+        assertTrue(curBoard.isSolved(), label + ": board not solved");
+    }
+}